@@ -0,0 +1,45 @@
+package psyknz.libgdx.orbgame.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import psyknz.libgdx.orbgame.layers.AIPlayer;
+import psyknz.libgdx.orbgame.layers.OrbLayer;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the AI choosing which color of orbs to chase next, with varying numbers of orbs on screen.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AIPlayerBenchmark {
+
+	@Param({"50", "200", "1000"})
+	public int numOrbs;		// Number of orbs on screen.
+
+	private OrbLayer layer;
+	private AIPlayer ai;
+
+	@Setup
+	public void setup() {
+		layer = BenchmarkSupport.createLayer();
+		ai = BenchmarkSupport.createAI(layer);
+		BenchmarkSupport.scatterOrbs(layer, numOrbs);
+	}
+
+	@TearDown
+	public void tearDown() {
+		layer.dispose();
+	}
+
+	@Benchmark
+	public AIPlayer selectTargets() {
+		ai.end();				// Forgets the last targets so that every call re-plans from scratch.
+		ai.selectTargets();
+		return ai;
+	}
+}
@@ -0,0 +1,87 @@
+package psyknz.libgdx.orbgame.benchmarks;
+
+import psyknz.libgdx.orbgame.layers.AIPlayer;
+import psyknz.libgdx.orbgame.layers.OrbLayer;
+import psyknz.libgdx.orbgame.misc.GamePalette;
+import psyknz.libgdx.orbgame.screens.PlayScreen2D;
+import psyknz.libgdx.orbgame.tweenaccessors.SpriteTween;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+
+import aurelienribon.tweenengine.Tween;
+
+/**
+ * Sets up headless orb layers for the benchmarks the same way the self-play simulation does, so that every benchmark measures the
+ * game as it is actually played.
+ */
+public class BenchmarkSupport {
+
+	public static final long SEED = 1234;				// Seed used so that every run places the same orbs.
+	public static final int NUM_COLORS = 5;				// Number of colors in the palette, matching the play screen.
+	public static final float TIME_STEP = 1 / 60f;		// Time in seconds passed to each update.
+
+	private static boolean initialised = false;	// Whether or not the natives and tween accessors have been set up.
+
+	/**
+	 * Loads the libGDX and Box2D natives and registers the tween accessors the orb layer uses. Safe to call more than once.
+	 */
+	public static void init() {
+		if(initialised) return;
+		GdxNativesLoader.load();									// Box2D loads its own natives the first time a world is made.
+		Tween.registerAccessor(Sprite.class, new SpriteTween());	// Starting orbs 'pop' into play with a tween.
+		initialised = true;
+	}
+
+	/**
+	 * Creates a headless orb layer with its border and magnet built, sized as though shown on a square screen. No game is started, so
+	 * the layer only holds the orbs a benchmark adds to it and nothing is scheduled to spawn more.
+	 * @return The new layer.
+	 */
+	public static OrbLayer createLayer() {
+		init();
+		MathUtils.random.setSeed(SEED);
+
+		OrthographicCamera camera = new OrthographicCamera(					// The camera is sized to exactly fit the play area.
+				PlayScreen2D.PLAY_AREA_SIZE, PlayScreen2D.PLAY_AREA_SIZE);	//
+		camera.update();													//
+
+		OrbLayer layer = new OrbLayer(null, new GamePalette(NUM_COLORS));	// Creates a headless layer
+		layer.resize(camera);												//
+		layer.createBorder();												// and builds the border and magnet without
+		layer.createMagnet();												// updating it, which would start a game.
+		return layer;
+	}
+
+	/**
+	 * Creates a headless AI playing on the given layer.
+	 * @param layer The layer the AI plays on.
+	 * @return The new AI.
+	 */
+	public static AIPlayer createAI(OrbLayer layer) {
+		AIPlayer ai = new AIPlayer(null, layer);
+		layer.enableAI(ai);
+		OrthographicCamera camera = new OrthographicCamera(PlayScreen2D.PLAY_AREA_SIZE, PlayScreen2D.PLAY_AREA_SIZE);
+		camera.update();
+		ai.resize(camera);
+		return ai;
+	}
+
+	/**
+	 * Scatters orbs at random around the magnet, inside the play area but clear of the border.
+	 * @param layer The layer the orbs are added to.
+	 * @param num Number of orbs to add.
+	 */
+	public static void scatterOrbs(OrbLayer layer, int num) {
+		float min = OrbLayer.ORB_DIAMETER * 4;					// Orbs are kept clear of the magnet
+		float max = PlayScreen2D.PLAY_AREA_SIZE / 2;			// and inside the play area.
+		for(int i = 0; i < num; i++) {
+			float angle = MathUtils.random(360f);
+			float distance = MathUtils.random(min, max);
+			layer.createOrb(MathUtils.sinDeg(angle) * distance, MathUtils.cosDeg(angle) * distance);
+		}
+		layer.update(TIME_STEP);	// One step is run so that the snapshot and grid hold every orb.
+	}
+}
@@ -0,0 +1,51 @@
+package psyknz.libgdx.orbgame.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import psyknz.libgdx.orbgame.layers.OrbLayer;
+import psyknz.libgdx.orbgame.play.OrbCollisionProcessor;
+
+import com.badlogic.gdx.physics.box2d.Fixture;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the collision processor handling the contacts Box2D reports most often: two FREE orbs touching, and a FREE orb touching
+ * the border.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+
+	private OrbLayer layer;
+	private OrbCollisionProcessor processor;
+	private Fixture orbA, orbB;		// Two orbs outside of play which touch each other.
+	private Fixture orbC, border;	// An orb which touches the border.
+
+	@Setup
+	public void setup() {
+		layer = BenchmarkSupport.createLayer();
+		BenchmarkSupport.scatterOrbs(layer, 3);
+		processor = new OrbCollisionProcessor(layer);
+		orbA = layer.orbs.get(0).body.getFixtureList().first();
+		orbB = layer.orbs.get(1).body.getFixtureList().first();
+		orbC = layer.orbs.get(2).body.getFixtureList().first();
+		border = layer.getBorder().body.getFixtureList().first();
+	}
+
+	@Benchmark
+	public boolean freeOrbs() {
+		boolean collided = processor.processBeginContact(orbA, orbB);	// Queues a joint between the orbs.
+		layer.commands.clear();											// The queue is emptied so that it doesn't grow.
+		return collided;
+	}
+
+	@Benchmark
+	public boolean border() {
+		return processor.processBeginContact(border, orbC);
+	}
+}
@@ -0,0 +1,35 @@
+package psyknz.libgdx.orbgame.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import psyknz.libgdx.orbgame.misc.GamePalette;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.math.MathUtils;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures picking the color of a new orb.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GamePaletteBenchmark {
+
+	private GamePalette palette;
+
+	@Setup
+	public void setup() {
+		MathUtils.random.setSeed(BenchmarkSupport.SEED);
+		palette = new GamePalette(BenchmarkSupport.NUM_COLORS);
+	}
+
+	@Benchmark
+	public Color getRandomColor() {
+		return palette.getRandomColor();
+	}
+}
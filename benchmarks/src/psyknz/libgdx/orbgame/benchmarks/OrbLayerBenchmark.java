@@ -0,0 +1,46 @@
+package psyknz.libgdx.orbgame.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import psyknz.libgdx.orbgame.layers.OrbLayer;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures a single update of the orb layer, which steps the physics world and moves every orb, with varying numbers of orbs. Each
+ * invocation builds a layer with no game running, scatters the orbs and then runs a fixed number of updates as they clump together
+ * around the magnet, so every measurement covers the same stretch of simulated time with the same orbs in play.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrbLayerBenchmark {
+
+	public static final int STEPS = 60;	// Number of updates run on each layer, one second of play.
+
+	@Param({"50", "200", "1000"})
+	public int numOrbs;		// Number of orbs in play.
+
+	private OrbLayer layer;
+
+	@Setup(Level.Invocation)
+	public void setup() {
+		layer = BenchmarkSupport.createLayer();
+		BenchmarkSupport.scatterOrbs(layer, numOrbs);
+	}
+
+	@TearDown(Level.Invocation)
+	public void tearDown() {
+		layer.dispose();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(STEPS)
+	public OrbLayer update() {
+		for(int i = 0; i < STEPS; i++) layer.update(BenchmarkSupport.TIME_STEP);
+		return layer;
+	}
+}
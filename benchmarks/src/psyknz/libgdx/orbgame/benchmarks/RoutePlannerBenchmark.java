@@ -0,0 +1,53 @@
+package psyknz.libgdx.orbgame.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import psyknz.libgdx.orbgame.layers.AIPlayer;
+import psyknz.libgdx.orbgame.layers.OrbLayer;
+import psyknz.libgdx.orbgame.play.OrbData;
+import psyknz.libgdx.orbgame.play.RoutePlanner;
+
+import com.badlogic.gdx.utils.Array;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the AI ordering a group of orbs into a route, both building it and refining it until it can't be shortened.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoutePlannerBenchmark {
+
+	@Param({"5", "20", "60"})
+	public int numTargets;	// Number of orbs in the route.
+
+	private OrbLayer layer;
+	private RoutePlanner planner;
+	private Array<OrbData> route;
+
+	@Setup
+	public void setup() {
+		layer = BenchmarkSupport.createLayer();
+		BenchmarkSupport.scatterOrbs(layer, numTargets);
+		planner = new RoutePlanner(layer.snapshot, AIPlayer.CHAIN_REACH, AIPlayer.ROUTE_BUDGET);
+		route = new Array<OrbData>();
+	}
+
+	@TearDown
+	public void tearDown() {
+		layer.dispose();
+	}
+
+	@Benchmark
+	public float planAndRefine() {
+		route.clear();
+		for(int i = 0; i < layer.orbs.size; i++) route.add(layer.orbs.get(i));	// Orbs start in the order they're stored.
+		planner.plan(0, 0, route);
+		while(!planner.refine(0, 0, route));
+		return planner.getLength(0, 0, route);
+	}
+}
@@ -0,0 +1,54 @@
+package psyknz.libgdx.orbgame.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import psyknz.libgdx.orbgame.misc.VectorTracker;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures recording touches in a vector tracker and interpolating the chain of orbs along them, as the play controller does every
+ * time the player drags their finger.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VectorTrackerBenchmark {
+
+	@Param({"10", "50"})
+	public int chainLength;		// Number of orbs in the chain being interpolated.
+
+	private VectorTracker tracker;
+	private float[] x, y;		// Co-ordinates the chain is interpolated into.
+	private float angle;		// Angle around a circle the next touch is recorded at.
+
+	@Setup(Level.Iteration)
+	public void setup() {
+		tracker = new VectorTracker(chainLength * 2);	// The tracker covers a chain of orbs 2 units across.
+		x = new float[chainLength];
+		y = new float[chainLength];
+		for(int i = 0; i < 200; i++) addTouch();		// Fills the tracker with a full length of touches.
+	}
+
+	@Benchmark
+	public VectorTracker addVector() {
+		addTouch();
+		return tracker;
+	}
+
+	@Benchmark
+	public int interpolateCoords() {
+		return tracker.interpolateCoords(x, y, chainLength, 2);
+	}
+
+	/**
+	 * Records a touch moving steadily around a circle, as a finger dragging a chain of orbs might.
+	 */
+	private void addTouch() {
+		angle += 5;
+		tracker.addVector((float) Math.cos(Math.toRadians(angle)) * 10, (float) Math.sin(Math.toRadians(angle)) * 10);
+	}
+}
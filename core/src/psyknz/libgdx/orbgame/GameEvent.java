@@ -1,30 +1,32 @@
 package psyknz.libgdx.orbgame;
 
+import psyknz.libgdx.orbgame.misc.TimerWheel;
+
 public abstract class GameEvent {
 	
-	private float delay, timer;	// How long a delay there should be before the event occurs, and a timer for the delays progress.
+	private float delay;		// How long a delay there should be before the event occurs.
 	private int repeatNum;		// How many times the event should repeat before it stops occuring. Repeats indefinately if set to -1.
 	
+	GameEventProcessor processor;	// Processor managing the event, or null if it isn't being managed.
+	long handle;					// Handle of the events timer in the processors wheel.
+	
 	/** Creates a new GameEvent with its timer at 0 without any repeats. */
 	public GameEvent() {
-		setTimer(0);	// Sets the timer to 0 to ensure the event occurs immediately.
+		handle = TimerWheel.NONE;	// The event has no timer until it is added to a processor.
+		setTimer(0);				// Sets the timer to 0 to ensure the event occurs immediately.
 	}
 	
-	/** Game logic for the event. Counts down the timer for the event which will only occur if its conditions are met. By default events
-	 * occur immediately and have no conditions to satisfy. Returns false if the event hasn't occured, and true if it has. 
-	 * @param delta Time in seconds that the events timer should be updated by.
+	/** Called by the processor once the timer for the event runs out and its conditions are met. The event occurs, then if there are
+	 * still repeats pending, or if set to repeat indefinately, the timer is reset.
 	 * @return Whether or not the event has finished. */
-	public boolean update(float delta) {
-		if(eventCondition()) {										// Provided the eventCondition is currently satisfied,
-			timer -= delta;											// The timer counts down.
-			if(timer <= 0) {										// If the timer reaches 0,
-				eventAction();										// the event occurs.
-				if(repeatNum > 0) setTimer(delay, repeatNum--);		// If there are still repeats pending,
-				else if(repeatNum < 0) setTimer(delay, repeatNum);	// or if set to repeat indefinately, the timer is reset.
-				else return true;									// Otherwise the event reports that it has completed.
-			}
-		}
-		return false;	// Returns false while there is time remaining on the timer.
+	boolean occur() {
+		eventAction();									// The event occurs.
+		if(handle != TimerWheel.NONE) return false;		// If the action set a new timer the event carries on with it.
+		if(processor == null) return true;				// If the action removed the event it has finished.
+		if(repeatNum == 0) return true;					// Events without repeats pending have finished.
+		if(repeatNum > 0) repeatNum--;					// Otherwise a repeat is used up, unless repeating indefinately,
+		processor.schedule(this);						// and the timer is reset.
+		return false;
 	}
 	
 	/** Sets a timer for the event that runs once.
@@ -41,15 +43,23 @@ public abstract class GameEvent {
 		else setTimer(time, 0);			// Otherwise it is set to 0 to prevent repeats.
 	}
 	
-	/** Sets a timer for the event and how many times it should be repeated.
+	/** Sets a timer for the event and how many times it should be repeated. If the event is already being managed by a processor its
+	 * timer starts again from now.
 	 * @param time How long the timer should run for in seconds before the event occurs.
 	 * @param repeatNum Number of times the event should repeat before it stops. */
 	public void setTimer(float time, int repeatNum) {
-		this.delay = timer = time;	// Sets the delay on the timer and starts the timer.
-		this.repeatNum = repeatNum; // Sets how many times the timer should repeat.
+		this.delay = time;						// Sets the delay on the timer.
+		this.repeatNum = repeatNum; 			// Sets how many times the timer should repeat.
+		if(processor != null) processor.schedule(this);	// Starts the timer if the event is being managed.
+	}
+	
+	/** @return How long the timer runs for in seconds before the event occurs. */
+	public float getDelay() {
+		return delay;
 	}
 	
-	/** Function to determine whether or not the event can occur. Should be overridden if you want a conditional event.
+	/** Function to determine whether or not the event can occur. Should be overridden if you want a conditional event. Conditions are
+	 * checked once the timer runs out, and if not met the event waits, checked every update, until they are.
 	 * @return Whether or not the conditions required for the event to occur have been satisfied. */
 	protected boolean eventCondition() {
 		return true;
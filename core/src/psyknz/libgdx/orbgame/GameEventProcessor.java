@@ -1,30 +1,74 @@
 package psyknz.libgdx.orbgame;
 
+import psyknz.libgdx.orbgame.misc.TimerWheel;
+
 import com.badlogic.gdx.utils.Array;
 
 public class GameEventProcessor {
 	
-	private Array<GameEvent> events;	// Array containing all timed events being processed.
+	private TimerWheel wheel;			// Wheel holding the timer of every event being managed.
+	private Array<GameEvent> waiting;	// Events whose timers have run out but whose conditions aren't yet met.
+	
+	private TimerWheel.Listener listener = new TimerWheel.Listener() {	// Called when an events timer runs out.
+		@Override
+		public void onTimer(long handle, Object data) {
+			GameEvent event = (GameEvent) data;
+			event.handle = TimerWheel.NONE;
+			if(!event.eventCondition()) waiting.add(event);	// Events which can't occur yet wait for their conditions,
+			else if(event.occur()) event.processor = null;	// otherwise they occur, and are let go once finished.
+		}
+	};
 	
-	/** Creates a new TimedEventProcessor which manages all TimedEvents. */
+	/** Creates a new GameEventProcessor which manages all GameEvents. */
 	public GameEventProcessor() {
-		events = new Array<GameEvent>();	// Initialises the Array storing TimedEvents.
+		wheel = new TimerWheel();			// Initialises the wheel timing GameEvents.
+		waiting = new Array<GameEvent>();	//
 	}
 	
-	/** Game logic for the processor.
-	 * @param delta Time in milliseconds since last game loop cycle. */
+	/** Game logic for the processor. Only events whose timers run out, or which are waiting on their conditions, are visited.
+	 * @param delta Time in seconds since last game loop cycle. */
 	public void update(float delta) {
-		for(GameEvent event : events) {									// Every event currently being managed,
-			if(event.update(delta)) events.removeValue(event, true);	// is counted down and if it's finished it's removed.
+		for(int i = waiting.size - 1; i >= 0; i--) {	// Every event waiting on its conditions is checked,
+			GameEvent event = waiting.get(i);			// and if they're met it's no longer waiting and occurs.
+			if(!event.eventCondition()) continue;		//
+			waiting.removeIndex(i);						//
+			if(event.occur()) event.processor = null;	//
 		}
+		wheel.update(delta);	// Timers are counted down, firing any events that are due.
 	}
 	
-	/** Adds a timed event to the list of events being managed by the processor.
+	/** Adds a timed event to the list of events being managed by the processor. Its timer starts from now.
 	 * @param event Reference to the event which needs to be tracked.
 	 * @return Returns a reference to the event that's been added for chaining. */
 	public GameEvent addEvent(GameEvent event) {
-		events.add(event);
+		if(event.processor != null) event.processor.removeEvent(event);	// An event is only managed by one processor at a time.
+		event.processor = this;
+		schedule(event);
 		return event;
 	}
+	
+	/** Stops managing an event so that it no longer occurs.
+	 * @param event The event to remove.
+	 * @return Whether or not the event was being managed by the processor. */
+	public boolean removeEvent(GameEvent event) {
+		if(event.processor != this) return false;
+		wheel.cancel(event.handle);
+		waiting.removeValue(event, true);
+		event.handle = TimerWheel.NONE;
+		event.processor = null;
+		return true;
+	}
+	
+	/** @return Number of events being managed by the processor. */
+	public int getSize() {
+		return wheel.getSize() + waiting.size;
+	}
+	
+	/** (Re)starts the timer for an event being managed by the processor. */
+	void schedule(GameEvent event) {
+		wheel.cancel(event.handle);
+		waiting.removeValue(event, true);
+		event.handle = wheel.schedule(listener, event, event.getDelay());
+	}
 
 }
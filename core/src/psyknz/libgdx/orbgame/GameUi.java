@@ -117,7 +117,7 @@ public class GameUi extends InputAdapter {
 	public void enableInput(String message) {
 		if(messageStack.size == 0) return;
 		
-		input.removeProcessor(inputLock);
+		if(inputLock != null) inputLock.unlock();
 		input.addProcessor(0, messageStack.peek());
 		
 		Sprite spr = new Sprite(baseSprite);
@@ -90,7 +90,12 @@ public class InputLock implements InputProcessor, TweenCallback {
 	 * @param source Reference to the Tween sending the callback. */
 	@Override
 	public void onEvent(int eventType, BaseTween<?> source) {
-		if(eventType == TweenCallback.COMPLETE) input.removeProcessor(this);
+		if(eventType == TweenCallback.COMPLETE) unlock();
+	}
+	
+	/** Removes the InputLock from the InputMultiplexer it is blocking, allowing input through again. */
+	public void unlock() {
+		input.removeProcessor(this);
 	}
 
 }
@@ -7,7 +7,6 @@ import com.badlogic.gdx.InputAdapter;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.physics.box2d.World;
 import com.badlogic.gdx.physics.box2d.Body;
@@ -33,7 +32,7 @@ public class PlayerController extends InputAdapter {
 	
 	private Array<Joint> joints = new Array<Joint>();	// Temporary Array used to access joints.
 	
-	private Array<Vector2> drawCoords = new Array<Vector2>();	// Temporary array of Vector2 objects for drawing selected orbs.
+	private float[] drawX = new float[16], drawY = new float[16];	// Temporary co-ordinates for placing selected orbs.
 	
 	/** Creates a new PlayerController.
 	 * @param world The box2d simulation the player is interacting with.
@@ -174,9 +173,13 @@ public class PlayerController extends InputAdapter {
 			orbToAdd = null;				// and the queue is cleared.
 		}
 		
-		touches.interpolateCoords(drawCoords, selectedOrbs.size, SELECTED_ORB_DIAMETER);			// Interpolates an evenly spaced set of co-ordinates matching the users input.
-		for(int i = 0; i < selectedOrbs.size; i++) {												// Each selected orb,
-			selectedOrbs.get(i).setTransform(drawCoords.get(i), selectedOrbs.get(i).getAngle());	// is placed along those co-ordinates.
+		if(drawX.length < selectedOrbs.size) {															// Makes room for a co-ordinate
+			drawX = new float[selectedOrbs.size * 2];														// for every selected orb.
+			drawY = new float[selectedOrbs.size * 2];														//
+		}
+		int num = touches.interpolateCoords(drawX, drawY, selectedOrbs.size, SELECTED_ORB_DIAMETER);	// Interpolates an evenly spaced set of co-ordinates matching the users input.
+		for(int i = 0; i < num; i++) {																	// Each selected orb,
+			selectedOrbs.get(i).setTransform(drawX[i], drawY[i], selectedOrbs.get(i).getAngle());		// is placed along those co-ordinates.
 		}
 	}
 	
@@ -1,28 +1,64 @@
 package psyknz.libgdx.orbgame;
 
-import com.badlogic.gdx.utils.Array;
+import psyknz.libgdx.orbgame.misc.TimerWheel;
 
 public class TimedEventProcessor {
 	
-	private Array<TimedEvent> events;	// Array containing all timed events being processed.
+	private TimerWheel wheel;	// Wheel holding the timer of every event being processed.
+	
+	private TimerWheel.Listener listener = new TimerWheel.Listener() {	// Called when an events timer reaches 0.
+		@Override
+		public void onTimer(long handle, Object data) {
+			TimedEvent event = (TimedEvent) data;
+			if(!event.repeat) {					// Events which don't repeat are finished
+				wheel.cancel(event.handle);		// so their timer is stopped and they're let go.
+				event.handle = TimerWheel.NONE;	//
+				event.processor = null;			//
+			}
+			event.timedAction();	// The events action then occurs.
+		}
+	};
 	
 	/** Creates a new TimedEventProcessor which manages all TimedEvents. */
 	public TimedEventProcessor() {
-		events = new Array<TimedEvent>();	// Initialises the Array storing TimedEvents.
+		wheel = new TimerWheel();	// Initialises the wheel timing TimedEvents.
 	}
 	
-	/** Game logic for the processor.
-	 * @param delta Time in milliseconds since last game loop cycle. */
+	/** Game logic for the processor. Only events whose timers reach 0 are visited.
+	 * @param delta Time in seconds since last game loop cycle. */
 	public void update(float delta) {
-		for(TimedEvent event : events) {								// Every event currently being managed,
-			if(!event.update(delta)) events.removeValue(event, true);	// is counted down and if it's finished it's removed.
-		}
+		wheel.update(delta);
 	}
 	
-	/** Adds a timed event to the list of events being managed by the processor.
+	/** Adds a timed event to the list of events being managed by the processor. Its timer starts from now.
 	 * @param event Reference to the event which needs to be tracked. */
 	public void addTimedEvent(TimedEvent event) {
-		events.add(event);
+		if(event.processor != null) event.processor.removeTimedEvent(event);	// An event is only timed by one processor at a time.
+		event.processor = this;
+		schedule(event);
+	}
+	
+	/** Stops the timer of an event so that its action no longer occurs.
+	 * @param event The event to remove.
+	 * @return Whether or not the event was being managed by the processor. */
+	public boolean removeTimedEvent(TimedEvent event) {
+		if(event.processor != this) return false;
+		wheel.cancel(event.handle);
+		event.handle = TimerWheel.NONE;
+		event.processor = null;
+		return true;
+	}
+	
+	/** @return Number of events being managed by the processor. */
+	public int getSize() {
+		return wheel.getSize();
+	}
+	
+	/** (Re)starts the timer for an event being managed by the processor. Every event repeats in the wheel until it is found not to. */
+	void schedule(TimedEvent event) {
+		wheel.cancel(event.handle);
+		float time = event.getTimer();
+		event.handle = wheel.schedule(listener, event, time, time, TimerWheel.REPEAT_FOREVER);
 	}
 
 }
@@ -0,0 +1,128 @@
+package psyknz.libgdx.orbgame.debug;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
+
+/**
+ * Collects the rolling histograms measuring how each frame is spent. Screens time the update and draw of every layer they hold, and
+ * layers with costs of their own, such as stepping the physics world, add histograms of their own. Every histogram is created up front
+ * or the first time its owner is seen, so measuring a frame never allocates.
+ */
+public class FrameProfiler {
+
+	public static final int WINDOW = 300;	// Number of frames each histogram covers, 5s at 60fps.
+
+	private Array<RollingHistogram> histograms;					// Every histogram in the order they were added.
+	private IdentityMap<Object, RollingHistogram> updateTimes;	// Histogram timing the update of each object seen.
+	private IdentityMap<Object, RollingHistogram> drawTimes;	// Histogram timing the draw of each object seen.
+	private StringBuilder report;								// Builder reused to produce reports.
+
+	/**
+	 * Creates a new profiler with no histograms.
+	 */
+	public FrameProfiler() {
+		histograms = new Array<RollingHistogram>();
+		updateTimes = new IdentityMap<Object, RollingHistogram>();
+		drawTimes = new IdentityMap<Object, RollingHistogram>();
+		report = new StringBuilder();
+	}
+
+	/**
+	 * Adds a histogram kept elsewhere so that it is reported alongside the rest.
+	 * @param histogram The histogram being added.
+	 * @return The same histogram.
+	 */
+	public RollingHistogram add(RollingHistogram histogram) {
+		if(!histograms.contains(histogram, true)) histograms.add(histogram);
+		return histogram;
+	}
+
+	/**
+	 * Creates and adds a histogram of timings in nanoseconds, shown in milliseconds.
+	 * @param name Name the histogram is reported under.
+	 * @return The new histogram.
+	 */
+	public RollingHistogram addTimer(String name) {
+		return add(new RollingHistogram(name, WINDOW, RollingHistogram.NANOS_TO_MILLIS, "ms"));
+	}
+
+	/**
+	 * Creates and adds a histogram of counts, shown as they are.
+	 * @param name Name the histogram is reported under.
+	 * @return The new histogram.
+	 */
+	public RollingHistogram addCounter(String name) {
+		return add(new RollingHistogram(name, WINDOW, 1, ""));
+	}
+
+	/**
+	 * @param owner Object whose update is being timed, usually a layer.
+	 * @return Histogram timing the update of the object, created the first time the object is seen.
+	 */
+	public RollingHistogram getUpdateTimer(Object owner) {
+		RollingHistogram h = updateTimes.get(owner);
+		if(h == null) {
+			h = addTimer(getName(owner) + " update");
+			updateTimes.put(owner, h);
+		}
+		return h;
+	}
+
+	/**
+	 * @param owner Object whose draw is being timed, usually a layer.
+	 * @return Histogram timing the draw of the object, created the first time the object is seen.
+	 */
+	public RollingHistogram getDrawTimer(Object owner) {
+		RollingHistogram h = drawTimes.get(owner);
+		if(h == null) {
+			h = addTimer(getName(owner) + " draw");
+			drawTimes.put(owner, h);
+		}
+		return h;
+	}
+
+	/**
+	 * @param name Name of the histogram to find.
+	 * @return The first histogram with the given name, or null if there isn't one.
+	 */
+	public RollingHistogram get(String name) {
+		for(int i = 0; i < histograms.size; i++) {
+			if(histograms.get(i).getName().equals(name)) return histograms.get(i);
+		}
+		return null;
+	}
+
+	/**
+	 * @return Every histogram in the order they were added.
+	 */
+	public Array<RollingHistogram> getHistograms() {
+		return histograms;
+	}
+
+	/**
+	 * Produces a report with a line summarising every histogram.
+	 * @return The report.
+	 */
+	public String report() {
+		report.setLength(0);
+		for(int i = 0; i < histograms.size; i++) histograms.get(i).report(report).append('\n');
+		return report.toString();
+	}
+
+	/**
+	 * Writes the report to a file, replacing anything already in it.
+	 * @param file The file the report is written to.
+	 */
+	public void dump(FileHandle file) {
+		file.writeString(report(), false);
+	}
+
+	/**
+	 * @return Name to report an objects histograms under, which is the name of its class without the package.
+	 */
+	private static String getName(Object owner) {
+		String name = owner.getClass().getName();
+		return name.substring(name.lastIndexOf('.') + 1);
+	}
+}
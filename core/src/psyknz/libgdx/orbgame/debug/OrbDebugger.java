@@ -1,17 +1,16 @@
 package psyknz.libgdx.orbgame.debug;
 
 import psyknz.libgdx.orbgame.layers.OrbLayer;
+import psyknz.libgdx.orbgame.misc.VectorTracker;
 import psyknz.libgdx.orbgame.play.OrbData;
 
 import com.badlogic.gdx.InputAdapter;
 import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.physics.box2d.Box2DDebugRenderer;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
-import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
 
 public class OrbDebugger extends InputAdapter implements Disposable {
@@ -42,12 +41,12 @@ public class OrbDebugger extends InputAdapter implements Disposable {
 	public void draw() {
 		if(camera != null) box2dRenderer.render(layer.world, camera.combined);
 		
-		Array<Vector2> v = layer.player.touches.getVectors();
-		if(drawInput && v.size > 1) {
+		VectorTracker v = layer.player.touches;
+		if(drawInput && v.getSize() > 1) {
 			shapeRenderer.setProjectionMatrix(camera.combined);
 			shapeRenderer.begin(ShapeType.Line);
-			for(int i = 1; i < v.size; i++) {
-				shapeRenderer.line(v.get(i - 1), v.get(i));
+			for(int i = 1; i < v.getSize(); i++) {
+				shapeRenderer.line(v.getX(i - 1), v.getY(i - 1), v.getX(i), v.getY(i));
 			}
 			shapeRenderer.end();
 		}
@@ -60,14 +59,13 @@ public class OrbDebugger extends InputAdapter implements Disposable {
 		touch.set(screenX, screenY, 0);
 		camera.unproject(touch);
 		
-		for(OrbData o : layer.orbs) {
+		for(int i = 0; i < layer.orbs.size; i++) {
+			OrbData o = layer.orbs.get(i);
 			if(o.getBounds().contains(touch.x, touch.y)) {
 				System.out.println("You selected the orb located at " 
 						+ o.body.getPosition().x + ", " + o.body.getPosition().y
-						+ ". That orbs sprite is located at "
-						+ (o.getSprite().getX() + o.getSprite().getWidth() / 2) + ", " 
-						+ (o.getSprite().getY() + o.getSprite().getHeight() / 2) + ". "
-						+ "The sprite is " + o.getSprite().getWidth() + ", " + o.getSprite().getHeight() + " in size.");
+						+ ". That orb is color " + o.getColorIndex() + " and is "
+						+ (o.hasSprite() ? "drawn with its own sprite." : "drawn by the orb renderer."));
 				return true;
 			}
 		}
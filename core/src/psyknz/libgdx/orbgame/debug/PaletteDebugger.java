@@ -1,13 +1,13 @@
 package psyknz.libgdx.orbgame.debug;
 
 import psyknz.libgdx.orbgame.misc.CameraController;
+import psyknz.libgdx.orbgame.misc.GameAtlas;
 import psyknz.libgdx.orbgame.misc.GamePalette;
 
 import com.badlogic.gdx.InputAdapter;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.utils.Disposable;
@@ -33,7 +33,7 @@ public class PaletteDebugger extends InputAdapter implements Disposable {
 	private float currentVolume = 100;
 	
 	public PaletteDebugger(GamePalette palette, AssetManager assets) {
-		spr = new Sprite(assets.get("white_circle.png", Texture.class), 32, 32, 1, 1);
+		spr = new Sprite(GameAtlas.findRegion(assets, "white_circle.png"), 32, 32, 1, 1);
 		batch = new SpriteBatch();
 		camera = new OrthographicCamera();
 		camControl = new CameraController(camera, 380, 700, CameraController.FIT_TO_SCREEN);
@@ -0,0 +1,77 @@
+package psyknz.libgdx.orbgame.debug;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Draws a line for every histogram in a frame profiler in the top left corner of the screen, on top of everything else. The overlay
+ * uses its own batch so that drawing it doesn't change the draw calls counted for the frame.
+ */
+public class ProfilerOverlay implements Disposable {
+
+	public static final float TEXT_HEIGHT = 16;	// Height of each line of text in pixels.
+	public static final float MARGIN = 8;		// Distance in pixels between the text and the edges of the screen.
+
+	private FrameProfiler profiler;			// Profiler whose histograms are drawn.
+	private BitmapFont font;				// Font the histograms are drawn with.
+	private SpriteBatch batch;				// Batch used to draw the overlay.
+	private OrthographicCamera camera;		// Camera matching the size of the screen in pixels.
+	private StringBuilder line;				// Builder reused for each line drawn.
+	private Color previousColor;			// Color the font had before the overlay was drawn.
+
+	/**
+	 * Creates a new overlay for the given profiler.
+	 * @param profiler The profiler whose histograms should be drawn.
+	 * @param font The font the histograms are drawn with.
+	 */
+	public ProfilerOverlay(FrameProfiler profiler, BitmapFont font) {
+		this.profiler = profiler;
+		this.font = font;
+		batch = new SpriteBatch();
+		camera = new OrthographicCamera();
+		line = new StringBuilder();
+		previousColor = new Color();
+	}
+
+	/**
+	 * Resizes the overlay to fit the screen.
+	 * @param width Width of the screen in pixels.
+	 * @param height Height of the screen in pixels.
+	 */
+	public void resize(int width, int height) {
+		camera.setToOrtho(false, width, height);
+	}
+
+	/**
+	 * Draws every histogram in the profiler to the screen.
+	 */
+	public void draw() {
+		float scaleX = font.getScaleX(), scaleY = font.getScaleY();	// The font is shared with the rest of the game
+		previousColor.set(font.getColor());							// so its scale and color are kept to restore afterwards.
+		font.setScale(TEXT_HEIGHT / font.getLineHeight() * scaleY);	// It is then scaled to the height of a line,
+		font.setColor(Color.YELLOW);								// whatever scale it was at.
+
+		batch.setProjectionMatrix(camera.combined);
+		batch.begin();
+		Array<RollingHistogram> histograms = profiler.getHistograms();
+		float y = camera.viewportHeight - MARGIN;
+		for(int i = 0; i < histograms.size; i++) {	// Each histogram is drawn on its own line
+			line.setLength(0);						// working down from the top of the screen.
+			font.draw(batch, histograms.get(i).report(line), MARGIN, y);
+			y -= TEXT_HEIGHT;
+		}
+		batch.end();
+
+		font.setScale(scaleX, scaleY);	// The font is restored to how it was found.
+		font.setColor(previousColor);	//
+	}
+
+	@Override
+	public void dispose() {
+		batch.dispose();
+	}
+}
@@ -0,0 +1,146 @@
+package psyknz.libgdx.orbgame.debug;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the most recent samples of a measurement, such as how long something took each frame, in a fixed size ring so that recording
+ * a sample never allocates. Percentiles are worked out over the samples currently held by sorting a copy of them, which is only done
+ * when a percentile is asked for after new samples have been recorded.
+ */
+public class RollingHistogram {
+
+	public static final float NANOS_TO_MILLIS = 1 / 1000000f;	// Scale used to show nanosecond timings in milliseconds.
+
+	private String name;	// Name the histogram is reported under.
+	private String unit;	// Unit samples are shown in once scaled.
+	private float scale;	// Amount samples are multiplied by before being shown.
+
+	private long[] samples;	// Ring of the most recent samples.
+	private long[] sorted;	// Copy of the samples sorted into order, used to find percentiles.
+	private int next;		// Index in the ring the next sample is recorded at.
+	private int size;		// Number of samples currently held in the ring.
+	private boolean dirty;	// Whether or not samples have been recorded since the copy was last sorted.
+	private long total;		// Number of samples recorded since the histogram was created or cleared.
+
+	/**
+	 * Creates a new histogram which holds the given number of samples.
+	 * @param name Name the histogram is reported under.
+	 * @param capacity Number of the most recent samples kept.
+	 * @param scale Amount samples are multiplied by before being shown.
+	 * @param unit Unit samples are shown in once scaled.
+	 */
+	public RollingHistogram(String name, int capacity, float scale, String unit) {
+		this.name = name;
+		this.unit = unit;
+		this.scale = scale;
+		samples = new long[capacity];
+		sorted = new long[capacity];
+	}
+
+	/**
+	 * Records a sample, replacing the oldest sample if the ring is full.
+	 * @param sample The value measured.
+	 */
+	public void record(long sample) {
+		samples[next] = sample;						// The sample is written over the oldest in the ring.
+		next = (next + 1) % samples.length;			//
+		if(size < samples.length) size++;			//
+		total++;
+		dirty = true;
+	}
+
+	/**
+	 * Forgets every sample recorded.
+	 */
+	public void clear() {
+		next = size = 0;
+		total = 0;
+		dirty = false;
+	}
+
+	/**
+	 * Finds the sample below which the given fraction of samples held fall.
+	 * @param percentile Fraction of samples between 0 and 1, e.g. 0.95 for the 95th percentile.
+	 * @return The sample at that percentile, or 0 if nothing has been recorded.
+	 */
+	public long getPercentile(float percentile) {
+		if(size == 0) return 0;
+		sort();
+		int i = (int) Math.ceil(percentile * size) - 1;	// Nearest rank percentile.
+		return sorted[Math.max(0, Math.min(size - 1, i))];
+	}
+
+	/**
+	 * @return Largest sample currently held, or 0 if nothing has been recorded.
+	 */
+	public long getMax() {
+		if(size == 0) return 0;
+		sort();
+		return sorted[size - 1];
+	}
+
+	/**
+	 * @return Most recently recorded sample, or 0 if nothing has been recorded.
+	 */
+	public long getLast() {
+		if(size == 0) return 0;
+		return samples[(next + samples.length - 1) % samples.length];
+	}
+
+	/**
+	 * @return Number of samples currently held.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @return Number of samples recorded since the histogram was created or cleared.
+	 */
+	public long getTotal() {
+		return total;
+	}
+
+	/**
+	 * @return Name the histogram is reported under.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Appends a single line summary of the histogram, e.g. "Box2D step: p50 0.41 p95 0.62 p99 0.80 max 1.3 ms".
+	 * @param out Builder the summary is appended to.
+	 * @return The same builder.
+	 */
+	public StringBuilder report(StringBuilder out) {
+		out.append(name).append(':');
+		append(out.append(" p50 "), getPercentile(0.5f));
+		append(out.append(" p95 "), getPercentile(0.95f));
+		append(out.append(" p99 "), getPercentile(0.99f));
+		append(out.append(" max "), getMax());
+		if(unit.length() > 0) out.append(' ').append(unit);
+		return out;
+	}
+
+	/**
+	 * Appends a scaled sample to two decimal places, without going through String.format.
+	 */
+	private void append(StringBuilder out, long sample) {
+		long hundredths = Math.round(sample * scale * 100.0);
+		out.append(hundredths / 100).append('.');
+		long fraction = hundredths % 100;
+		if(fraction < 10) out.append('0');
+		out.append(fraction);
+	}
+
+	/**
+	 * Sorts a copy of the samples held if any have been recorded since it was last sorted.
+	 */
+	private void sort() {
+		if(!dirty) return;
+		System.arraycopy(samples, 0, sorted, 0, size);
+		Arrays.sort(sorted, 0, size);
+		dirty = false;
+	}
+}
@@ -2,6 +2,7 @@ package psyknz.libgdx.orbgame.layers;
 
 import psyknz.libgdx.orbgame.Position2d;
 import psyknz.libgdx.orbgame.TextElement;
+import psyknz.libgdx.orbgame.misc.GameAtlas;
 import psyknz.libgdx.orbgame.screens.PlayScreen2D;
 import psyknz.libgdx.orbgame.screens.GameScreen2D;
 import psyknz.libgdx.orbgame.tweenaccessors.CameraTween;
@@ -16,7 +17,6 @@ import aurelienribon.tweenengine.Tween;
 
 import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
@@ -41,11 +41,7 @@ public class LoadingLayer implements GameLayer {
 		BitmapFont font = game.assets.get("kenpixel_blocks.ttf", BitmapFont.class);	// Sets the font to use for TextElements,
 		loading = new TextElement("Loading...0%", font, 0, 0);						// and creates the loading TextElement.
 		
-		game.assets.load("white_circle.png", Texture.class);	// Queues loading the sprite for the orbs,
-		game.assets.load("white_torus.png", Texture.class);		// and for the pulses.
-		game.assets.load("game_logo.png", Texture.class);		// and the game logo.
-		game.assets.load("pointer.png", Texture.class);			// and the picture for when the AI touches down
-		game.assets.load("singleplayer.png", Texture.class);	// and the picture for when the AI releases the screen.
+		GameAtlas.load(game.assets);	// Queues loading the atlas every texture is packed into.
 		
 		Tween.registerAccessor(Color.class, new ColorTween());		// Registers the accessor to use for tweening Color values.
 		Tween.registerAccessor(Camera.class, new CameraTween());	// Registers the accessor to use for Tweening the Camera.
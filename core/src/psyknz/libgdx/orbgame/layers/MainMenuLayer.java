@@ -2,16 +2,17 @@ package psyknz.libgdx.orbgame.layers;
 
 import psyknz.libgdx.architecture.UITable;
 
+import psyknz.libgdx.orbgame.misc.GameAtlas;
 import psyknz.libgdx.orbgame.uifeatures.UIButton;
 import psyknz.libgdx.orbgame.uifeatures.UISprite;
 
 import com.badlogic.gdx.InputMultiplexer;
 import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.assets.AssetManager;
 
@@ -32,7 +33,7 @@ public class MainMenuLayer implements GameLayer {
 		table = new UITable(0.05f, 0.12f, true);	// Creates a new UITable		
 		buttons = new Array<UIButton>();			// Instantiates a new array to hold the game buttons.
 		
-		Texture tex = assets.get("white_circle.png", Texture.class);			// Loads the texture to use for drawing buttons
+		TextureRegion tex = GameAtlas.findRegion(assets, "white_circle.png");	// Finds the texture to use for drawing buttons
 		Sprite spr = new Sprite(tex, 32, 32, 1, 1);								// and builds a sprite using a single pixel from it.
 		spr.setColor(Color.GRAY);												// Makes the sprite light gray
 		spr.setAlpha(0.6f);														// and 40% transparent.
@@ -1,5 +1,9 @@
 package psyknz.libgdx.orbgame.layers;
 
+import psyknz.libgdx.orbgame.debug.FrameProfiler;
+import psyknz.libgdx.orbgame.debug.RollingHistogram;
+import psyknz.libgdx.orbgame.misc.GameAtlas;
+import psyknz.libgdx.orbgame.misc.GameScheduler;
 import psyknz.libgdx.orbgame.misc.GamePalette;
 import psyknz.libgdx.orbgame.play.*;
 import psyknz.libgdx.orbgame.screens.PlayScreen2D;
@@ -7,20 +11,20 @@ import psyknz.libgdx.orbgame.tweenaccessors.SpriteTween;
 
 import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.assets.AssetManager;
 
 import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.physics.box2d.BodyDef;
 import com.badlogic.gdx.physics.box2d.CircleShape;
 import com.badlogic.gdx.physics.box2d.FixtureDef;
 import com.badlogic.gdx.physics.box2d.World;
-import com.badlogic.gdx.physics.box2d.Joint;
 
 import aurelienribon.tweenengine.*;
 import aurelienribon.tweenengine.equations.Elastic;
@@ -33,10 +37,47 @@ public class OrbLayer implements GameLayer {
 	public static final int POINTS_PER_ORB = 10;								// Points received per orb scored.
 	public static final float DELAY_BETWEEN_PLACEMENTS = 0.5f;					// Time in seconds for a new game to start.
 	public static final float PLACEMENT_TWEEN_TIME = 2.0f;						// Time taken to place a ring of orbs.
+	public static final float TIME_STEP = 1 / 60f;								// Fixed length of time in seconds each physics step covers.
+	public static final int MAX_SUB_STEPS = 5;									// Most physics steps which may be run to catch up in one update.
+	public static final int VELOCITY_ITERATIONS = 6;							// Velocity iterations the box2d solver starts with.
+	public static final int POSITION_ITERATIONS = 2;							// Position iterations the box2d solver starts with.
+	public static final int MIN_VELOCITY_ITERATIONS = 2;						// Bounds on the velocity iterations the solver
+	public static final int MAX_VELOCITY_ITERATIONS = 8;						// budget may choose.
+	public static final int MIN_POSITION_ITERATIONS = 1;						// Bounds on the position iterations the solver
+	public static final int MAX_POSITION_ITERATIONS = 3;						// budget may choose.
+	public static final float STEP_BUDGET = TIME_STEP / 4;						// Time in seconds a single physics step should take at most.
+	public static final float CULL_MARGIN = ORB_DIAMETER / 2;					// Distance outside the view orbs are still drawn within.
+	
+	private static final GameScheduler.Task<OrbLayer> SPAWN_ORB = new GameScheduler.Task<OrbLayer>() {
+		@Override
+		public void run(OrbLayer layer) {
+			layer.createOrb();		// Creates an orb during play
+			layer.setSpawnTimer();	// and schedules the next at the speed defined by the spawn rate.
+		}
+	};
+	
+	private static final GameScheduler.Task<OrbLayer> PLACE_OUTER_RING = new GameScheduler.Task<OrbLayer>() {
+		@Override
+		public void run(OrbLayer layer) {
+			layer.placeTimer = GameScheduler.NONE;
+			layer.placeStartingOrbs(12, 0);	// Creates the outer ring of 12 orbs, enclosing the inner 6.
+		}
+	};
+	
+	private static final GameScheduler.Task<OrbLayer> START_PLAY = new GameScheduler.Task<OrbLayer>() {
+		@Override
+		public void run(OrbLayer layer) {
+			layer.startTimer = GameScheduler.NONE;
+			if(layer.ai != null) layer.ai.start();	// Starts the ai once the game begins
+			layer.setSpawnTimer();					// and starts the spawn timer running.
+		}
+	};
 	
 	private AssetManager assets;		// Reference to the asset manager containing assets for orbs.
 	public final TweenManager manager;	// Reference to the tween manager used to process orb layer tweens.
+	public final GameScheduler scheduler;	// Scheduler running the layers timed game events against the game clock.
 	private GamePalette palette;		// Reference to the palette used to colour the game.
+	private final RandomXS128 random;	// Random numbers for the game alone, as MathUtils.random is also drawn on by box2d's maps.
 	public final PlayController player;	// Reference to the play controller which allows for interaction with the play field.
 	private AIPlayer ai;				// Reference to the AI playing the game, if any.
 	
@@ -46,28 +87,76 @@ public class OrbLayer implements GameLayer {
 	private CircleShape orbShape; 		// Shape information for orbs and their sensors.
 	private Sprite orbSprite;			// Reference to the base sprite used to draw all other orbs.
 	private OrbData border, magnet;		// References to the border and magnet object which are always present.
-	public final Array<OrbData> orbs;	// Array containing references to data for all orbs active in the simulation.
+	public final OrbStore orbs;			// Store containing references to data for all orbs active in the simulation.
+	public final OrbPool pool;			// Pool recycling orbs once they have been removed from play.
+	public final OrbGrid grid;			// Spatial index used to find the orbs in the store near a point or area.
+	public final OrbSnapshot snapshot;	// Copy of the position and velocity of every orb, read once per frame from box2d.
+	public final OrbBuckets buckets;	// FREE orbs inside the field the AI plays in, grouped by color.
+	public final OrbAttraction attraction;	// Batched stage steering every FREE orb towards its target.
+	private OrbRenderer renderer;		// Renderer drawing every orb without a sprite of its own.
+	private float alpha;				// Fraction of a physics step between the last step and the current frame.
+	public final OrbJoints joints;		// Manager for the joints holding orbs together.
+	public final OrbClusters clusters;	// Tracker for which orbs are joined together and to the magnet.
+	public final OrbCommands commands;	// Commands raised during a physics step, executed once the step has finished.
+	public final OrbFreezer freezer;	// Freezes orbs which have settled onto the magnet by putting them to sleep.
+	public final SolverBudget solver;	// Chooses the solver iterations so that physics steps fit within their budget.
+	public final RollingHistogram stepTimes;	// Time each Box2D step takes.
+	public final RollingHistogram drawnCounts;	// Number of orbs drawn each frame.
+	public final RollingHistogram culledCounts;	// Number of orbs culled each frame.
+	private boolean freezing = false;	// Whether or not settled orbs should be frozen.
 	
 	private Camera camera;			// Reference to the camera used to draw this layer.
+	private Rectangle viewArea;		// Area of the world visible through the camera, or null if it isn't known.
+	private Rectangle cullArea;		// View area grown by the cull margin. Orbs outside of it aren't drawn.
+	private Array<OrbData> visible;	// Temporary array of orbs found inside the cull area.
+	private int drawn, culled;		// Number of orbs drawn and culled the last time the layer was drawn.
 	private float spawnDistance;	// Size of the visible play field and the distance at orbs spawn away from the magnet.
-	private Tween spawnTimer;		// Tween used to control the orbs spawning.
-	private float spawnRate;		//
+	private long spawnTimer;		// Token for the scheduled spawning of the next orb.
+	private long placeTimer;		// Token for the scheduled placing of the outer ring of starting orbs.
+	private long startTimer;		// Token for the scheduled start of play once the starting orbs are placed.
+	private float spawnRate;		// Number of seconds which pass between each orb spawning.
+	private float accumulator;		// Time in seconds which has passed but not yet been simulated by a physics step.
+	
+	private boolean playing = false;	// Whether or not a game is currently being played on this layer.
+	private int score;					// Points scored during the current, or most recently finished, game.
+	private float gameTime;				// Time in seconds the current, or most recently finished, game has lasted.
+	private int gamesPlayed;			// Number of games which have ended on this layer.
+	private int settledOrbs;			// Number of orbs joined to the magnet when the most recent game ended.
 	
 	/**
 	 * Creates a new layer for processing orb interactions.
-	 * @param assets The asset manager which contains the textures needed to render the game field.
+	 * @param assets The asset manager which contains the textures needed to render the game field. If null the layer runs headless,
+	 * creating untextured sprites so that it can be simulated without a GL context.
 	 * @param palette The color palette which should be used to colour to game field.
 	 */
 	public OrbLayer(AssetManager assets, GamePalette palette) {
 		this.assets = assets;	// Stores a reference to the asset manager holding resources for the orbs.
 		this.palette = palette;	// Stores a reference to the palette used to generate the games elements.
+		random = new RandomXS128();	// Creates the layers own source of random numbers.
 		
 		manager = new TweenManager();	// Stores a reference to the tween manager used to process this layers tweens.
+		scheduler = new GameScheduler();				// Creates the scheduler for timed game events,
+		spawnTimer = placeTimer = startTimer = GameScheduler.NONE;	// which has nothing scheduled yet.
+		
+		world = new World(new Vector2(0, 0), true);	// Creates the Box2D World space
+		solver = new SolverBudget(STEP_BUDGET,											// and the budget deciding how
+				VELOCITY_ITERATIONS, MIN_VELOCITY_ITERATIONS, MAX_VELOCITY_ITERATIONS,	// hard it's solved each step.
+				POSITION_ITERATIONS, MIN_POSITION_ITERATIONS, MAX_POSITION_ITERATIONS);	//
+		stepTimes = new RollingHistogram("Box2D step", FrameProfiler.WINDOW,			// Every step is also timed for profiling.
+				RollingHistogram.NANOS_TO_MILLIS, "ms");								//
+		drawnCounts = new RollingHistogram("Orbs drawn", FrameProfiler.WINDOW, 1, "");	// As is how many orbs are drawn
+		culledCounts = new RollingHistogram("Orbs culled", FrameProfiler.WINDOW, 1, "");	// and culled each frame.
 		
-		world = new World(new Vector2(0, 0), true);	// Creates the Box2D World space.
-		new OrbCollisionProcessor(this);		 	// Creates a new collision processor to listen to box2d contcts.
+		orbs = new OrbStore();									// Initialises the store containing all orbs in the game,
+		grid = new OrbGrid(orbs, ORB_DIAMETER, ORB_DIAMETER / 2);	// the grid used to find them
+		snapshot = new OrbSnapshot(orbs);						// and the snapshot of where they are.
+		buckets = new OrbBuckets(orbs, snapshot, palette.getNumColors(), ORB_DIAMETER / 2);	// FREE orbs are grouped by color.
+		attraction = new OrbAttraction(orbs, snapshot, OrbData.FREE_SPEED);	// Creates the stage steering FREE orbs.
 		
-		orbs = new Array<OrbData>();	// Initialises the array containing all orbs in the game.
+		clusters = new OrbClusters(orbs, palette.getNumColors());			// Creates the tracker for clusters of joined orbs
+		joints = new OrbJoints(world, clusters);							// and the manager for joints between orbs in that world.
+		commands = new OrbCommands(this);									// Creates the buffer for commands raised by contacts
+		new OrbCollisionProcessor(this);		 							// and a new collision processor to listen to box2d contcts.
 		
 		player = new PlayController(this);	// Creates a new player controller to allow interaction with this layer.
 		
@@ -80,8 +169,15 @@ public class OrbLayer implements GameLayer {
 		orbFixDef.friction = 0.0f; 						// Sets the orbs friction.
 		orbFixDef.density = 0.0f; 						// Sets the orbs density.
 		
-		orbSprite = new Sprite(assets.get("white_circle.png", Texture.class));	// Creates a sprite for the orb.
+		orbSprite = createSprite("white_circle.png");	// Creates a sprite for the orb.
 		orbSprite.setSize(ORB_DIAMETER, ORB_DIAMETER);							// Sets the size of the sprite as the default orb size.
+		
+		pool = new OrbPool(this, orbBodyDef, orbFixDef, orbSprite);	// Creates the pool which creates and recycles orbs
+		renderer = new OrbRenderer(snapshot, palette, orbSprite);	// and the renderer which draws them.
+		freezer = new OrbFreezer(this);								// Creates the freezer for settled orbs.
+		
+		cullArea = new Rectangle();		// Initialises the area orbs are culled against
+		visible = new Array<OrbData>();	// and the array of orbs found inside it.
 	}
 	
 	@Override
@@ -101,12 +197,39 @@ public class OrbLayer implements GameLayer {
 		if(border == null) createBorder();	// If the border hasn't been instantiated, it is.
 		if(magnet == null) createMagnet();	// If the magnet hasn't been instantiated, it is.
 		
-		manager.update(delta);		// Updates all tweens that are currently running.
-		world.step(delta, 6, 2); 	// Steps through the Box2D simulation.
+		if(playing) gameTime += delta;	// Records how long the current game has been running for.
+		
+		manager.update(delta);		// Updates all tweens that are currently running
+		scheduler.update(delta);	// and runs any game events which are due.
+		
+		accumulator += delta;										// Time passed is added to the time waiting to be simulated,
+		int steps = 0;												// which is then consumed in fixed size steps.
+		while(accumulator >= TIME_STEP && steps < MAX_SUB_STEPS) {	// At most MAX_SUB_STEPS are run so a long frame can't stall
+			if(accumulator < TIME_STEP * 2 || steps + 1 >= MAX_SUB_STEPS)	// the game. Before the last step where the orbs
+				snapshot.capturePrevious(steps == 0);						// are is recorded to interpolate from.
+			for(int i = 0; i < orbs.size; i++) orbs.get(i).step();	// Orbs apply their forces
+			solver.begin();											// before the Box2D simulation is stepped forwards
+			world.step(TIME_STEP, solver.getVelocityIterations(),	// with as many iterations as the budget allows.
+					solver.getPositionIterations());				//
+			solver.end();											//
+			stepTimes.record(solver.getLastNanos());				//
+			commands.execute();										// Contacts made during the step are then acted on.
+			accumulator -= TIME_STEP;								//
+			steps++;												//
+		}
+		if(accumulator >= TIME_STEP) accumulator %= TIME_STEP;	// Any time which couldn't be caught up on is dropped.
+		if(steps > 0) {											// If the orbs have moved their new positions are read once
+			snapshot.capture(ai != null && buckets.hasField() ? buckets : null);	// into the snapshot, which regroups orbs crossing
+			grid.update(snapshot);								// the edge of the AI's field, and the grid is brought up to date.
+		}
+		if(freezing && playing) freezer.update(steps);			// Orbs which have settled are frozen.
+		if(steps > 0) attraction.update();						// Every FREE orb is steered towards its target.
 		
 		player.update();	// Updates game logic for the play controller.
 		
-		for(OrbData o : orbs) o.update(delta);	// Game logic for all orbs is updated.
+		alpha = accumulator / TIME_STEP;						// How far between the last two physics steps the current frame is.
+		for(int i = orbs.size - 1; i >= 0; i--) 				// Game logic for all orbs is updated and their sprites interpolated.
+			orbs.get(i).update(alpha);							// Orbs are visited last to first so that they can remove themselves.
 		
 		if(orbs.size <= 0) newGame();	// TODO: remove this hack and replace with a better method.
 		
@@ -118,9 +241,23 @@ public class OrbLayer implements GameLayer {
 		border.getSprite().draw(batch);	// Draws the border to the screen.
 		magnet.getSprite().draw(batch);	// Draws the magnet to the screen.
 		
-		for(OrbData o : orbs) o.getSprite().draw(batch);	// Draws all orbs to the screen.
+		renderer.begin(alpha);														// Orbs are drawn where they are this frame.
+		if(getCullArea() == null) {													// If the visible area isn't known
+			for(int i = 0; i < orbs.size; i++) renderer.draw(batch, orbs.get(i));	// every orb is drawn to the screen.
+			drawn = orbs.size;
+		}
+		else {																		// Otherwise only the orbs the grid
+			grid.queryRect(cullArea, visible);										// finds inside the cull area
+			for(int i = 0; i < visible.size; i++) renderer.draw(batch, visible.get(i));	// are drawn.
+			drawn = visible.size;
+			visible.clear();
+		}
+		culled = orbs.size - drawn;
 		
 		player.draw(batch); // draws all orbs being managed by the play controller.
+		
+		drawnCounts.record(getDrawn());		// Records how many orbs were drawn
+		culledCounts.record(getCulled());	// and culled this frame.
 	}
 	
 	@Override
@@ -134,7 +271,7 @@ public class OrbLayer implements GameLayer {
 	 * @return Reference to the orb that was created.
 	 */
 	public Body createOrb() {
-		float angleSpawn = MathUtils.random(360.0f); // Randomly selects where to spawn the orb relative to the magnet.
+		float angleSpawn = random.nextFloat() * 360.0f; // Randomly selects where to spawn the orb relative to the magnet.
 		
 		return createOrb(																		// Creates a new orb at a position based on
 				magnet.body.getPosition().x + MathUtils.sinDeg(angleSpawn) * spawnDistance, 	// the the randomly generated angle and at a
@@ -148,22 +285,25 @@ public class OrbLayer implements GameLayer {
 	 * @return Reference to the orb that was created.
 	 */
 	public Body createOrb(float x, float y) {
-		orbBodyDef.position.set(x, y); 							// Sets the x, y co-ordinates for the new orb.
-		Body orb = world.createBody(orbBodyDef);				// Creates a new orb in the physics world.
-		orb.createFixture(orbFixDef); 							// Generates the fixture representing the physical orb.
-		orbs.add(new OrbData(this, orb, orbSprite, 				// Creates and adds new orb data to the list of orbs
-				palette.getRandomColor(), OrbData.State.FREE));	// using a random new color and in a FREE motion state.
+		int color = palette.getRandomColorIndex();							// Gets a FREE orb with a random color from the pool
+		OrbData orb = pool.obtain(x, y, palette.getColor(color), color);	//
+		orbs.add(orb);												// and adds it to the list of orbs
+		grid.insert(orb, x, y);										// and the grid.
+		buckets.refresh(orb);										// It is then grouped by its color.
 		
-		return orb; // Returns a reference to the orb which has just been created.
+		return orb.body; // Returns a reference to the orb which has just been created.
 	}
 	
 	/**
-	 * Removes the given orb and its user data from the game.
+	 * Removes the given orb and its user data from the game. The orb is returned to the pool to be reused.
 	 * @param orb The orb to be removed from the simulation.
 	 */
 	public void removeOrb(OrbData orb) {
-		world.destroyBody(orb.body);	// The physics body for the orb is removed from the box2d simulation.
-		orbs.removeValue(orb, true);	// Afterwards, the data for the orb is removed as well.
+		freezer.thaw(orb);		// The orb is thawed if it was frozen,
+		orbs.remove(orb);		// The data for the orb is removed from the list of orbs, if it's in it,
+		grid.remove(orb);		// and from the grid,
+		buckets.remove(orb);	// and from its color group,
+		pool.free(orb);			// and the orb is parked in the pool.
 	}
 	
 	/**
@@ -171,30 +311,27 @@ public class OrbLayer implements GameLayer {
 	 * @param orb The orb that has been selected by the player.
 	 */
 	public void selectOrb(OrbData orb) {
-		orbs.removeValue(orb, true);	// Removes the selected orb from the layers record of FREE orbs
-		player.selectOrb(orb);			// and instead selects it.
+		orbs.remove(orb);		// Removes the selected orb from the layers record of FREE orbs
+		grid.remove(orb);		// and from the grid
+		buckets.remove(orb);	// and its color group
+		player.selectOrb(orb);	// and instead selects it.
 	}
 	
-	// TODO: implement a score system.
+	/**
+	 * Scores a chain of orbs for the player and speeds up the rate at which new orbs spawn.
+	 * @param num Number of orbs in the chain being scored.
+	 */
 	public void scoreOrbs(int num) {
-		spawnRate *= 0.97f;
-		//ui.addPoints((int) Math.pow(selectedOrbs.size, 2) * POINTS_PER_ORB);	// The selected orbs are scored,
+		spawnRate *= 0.97f;								// Each chain scored makes orbs spawn slightly faster.
+		score += (int) Math.pow(num, 2) * POINTS_PER_ORB;	// Longer chains are worth exponentially more points.
 	}
 	
 	/**
-	 * Creates and starts a new spawn timer with the given repeat rate and delay.
-	 * @param delay Delay before the first orb is created by this timer in seconds.
-	 * @param rate Number of seconds which should pass between each orb spawning.
+	 * Schedules the next orb to spawn once the current spawn rate has passed. Any orb already scheduled to spawn no longer does.
 	 */
 	public void setSpawnTimer() {
-		if(spawnTimer != null) spawnTimer.kill();					// If the spawnTimer is currently running it is killed.
-		spawnTimer = Tween.call(new TweenCallback() {				// Starts a new Tween Callback
-			@Override												//
-			public void onEvent(int type, BaseTween<?> source) {	//
-				createOrb();										// to create orbs during play
-				setSpawnTimer();									//
-			}														// at the speed defined by the spawn rate, on repeat.
-		}).delay(spawnRate).start(manager);							//
+		scheduler.cancel(spawnTimer);									// If the spawnTimer is currently running it is cancelled
+		spawnTimer = scheduler.schedule(SPAWN_ORB, this, spawnRate);	// and the next orb is scheduled at the current spawn rate.
 	}
 	
 	/**
@@ -216,7 +353,7 @@ public class OrbLayer implements GameLayer {
 		Body b = world.createBody(borderDef);	// Creates a new border object using the magnets definition,
 		b.createFixture(borderFixDef);			// and generates the borders fixture.
 				
-		Sprite borderSpr = new Sprite(assets.get("white_circle.png", Texture.class));	// Creates a sprite for the border.
+		Sprite borderSpr = createSprite("white_circle.png");							// Creates a sprite for the border.
 		borderSpr.setSize(borderSize, borderSize);										// Sets its size to what was previously calculated,
 		border = new OrbData(this, b, borderSpr, Color.MAROON, OrbData.State.BORDER);	//
 		borderShape.dispose();															// Disposes of the borderShape when finished.
@@ -233,11 +370,12 @@ public class OrbLayer implements GameLayer {
 		Body m = world.createBody(magnetDef);	// Creates a new magnet using the above Body Definition.
 		m.createFixture(orbShape, 0f);		// Provides the magnet with a single circular fixture of size 0,
 				
-		Sprite pulse = new Sprite(assets.get("white_torus.png", Texture.class)); 	// Creates a pulse sprite for the magnet.
+		Sprite pulse = createSprite("white_torus.png"); 							// Creates a pulse sprite for the magnet.
 		pulse.setSize(ORB_DIAMETER, ORB_DIAMETER);									// Sets it to the size of an orb,
 				
 		magnet = new OrbData(this, m, orbSprite, Color.GRAY, OrbData.State.MAGNET); 	// Generates user data for the magnet.
 		magnet.inPlay = true;															// Defines the magnet as in play.
+		clusters.setMagnet(magnet);														// Settled orbs are those joined to the magnet.
 		// TODO: re-add a large pulse to the magnet.
 	}
 	
@@ -247,43 +385,44 @@ public class OrbLayer implements GameLayer {
 	public void newGame() {
 		placeStartingOrbs(6, 30);	// Creates the inner ring of 6 orbs to enclose the magnet.
 		
-		Tween.call(new TweenCallback() {							// Uses a Tween Callback
-			@Override												//
-			public void onEvent(int type, BaseTween<?> source) {	//
-				placeStartingOrbs(12, 0);							// to create the outer ring of 12 orbs, enclosing the inner 6
-			}														//
-		}).delay(DELAY_BETWEEN_PLACEMENTS).start(manager);			// after a delay of .5s
+		scheduler.cancel(placeTimer);														// The outer ring of 12 orbs follows after a delay of .5s.
+		placeTimer = scheduler.schedule(PLACE_OUTER_RING, this, DELAY_BETWEEN_PLACEMENTS);	//
 		
 		spawnRate = BASE_SPAWN_RATE;	// Resets the spawn rate to the starting rate.
+		score = 0;						// Resets the score
+		gameTime = 0;					// and the length of the game
+		playing = true;					// before flagging that a game is being played.
 		
-		Tween.call(new TweenCallback() {											// Uses a Tween Callback
-			@Override																//
-			public void onEvent(int type, BaseTween<?> source) {					//
-				if(ai != null) ai.start();											// to start the ai once the game begins
-				setSpawnTimer();													// and starts the spawn timer running.
-			}																		//
-		}).delay(DELAY_BETWEEN_PLACEMENTS + PLACEMENT_TWEEN_TIME).start(manager);	//
+		scheduler.cancel(startTimer);										// Play starts once the starting orbs
+		startTimer = scheduler.schedule(START_PLAY, this,					// have been placed.
+				DELAY_BETWEEN_PLACEMENTS + PLACEMENT_TWEEN_TIME);			//
 	}
 	
 	/**
 	 * Ends the game by stopping orbs spawning, breaking all joints, and causing orbs to bounce off of screen.
 	 */
 	public void endGame() {
-		spawnTimer.kill();	// Stops the spawn timer to prevent new orbs being created.
-		spawnTimer = null;	// Then removes the reference to that timer.
+		if(!playing) return;	// A game which has already ended can't end again.
+		playing = false;		// Flags that the game is over
+		gamesPlayed++;			// and records that another game has been played.
+		
+		spawnTimer = scheduler.cancel(spawnTimer);	// Stops the spawn timer to prevent new orbs being created,
+		placeTimer = scheduler.cancel(placeTimer);	// as well as the outer ring being placed
+		startTimer = scheduler.cancel(startTimer);	// and play starting if the game ended before they could.
 		
 		if(ai != null) ai.end();	// If an ai is interacting with this layer is is stopped.
 		
-		Array<Joint> joints = new Array<Joint>();		// Initialises an array to access all joints in the simulation.
-		world.getJoints(joints);						// Stores all joints in the array
-		for(Joint j : joints) world.destroyJoint(j);	// then proceeds to break them all.
+		settledOrbs = clusters.getMagnetClusterSize();	// Records how many orbs had settled before
+		freezer.thawAll();								// every orb is thawed
+		joints.detachAll();								// and every joint in the simulation is broken.
 		
 		float angle;																		// Angle the orbs should bounce towards.
 		Vector2 angularForce = new Vector2();												// Vector to represent the angle and force.
 		Vector2 removePoint = new Vector2(0, camera.position.y - camera.viewportHeight);	// Vector representing off-screen.
 		
-		for(OrbData o : orbs) {										// Every orb in the simulation (other than the border and magnet)	
-			angle = MathUtils.random(90.0f) - 45.0f;				// has a random angle assigned to it between 45 and 135 degrees,
+		for(int i = 0; i < orbs.size; i++) {						// Every orb in the simulation (other than the border and magnet)	
+			OrbData o = orbs.get(i);								//
+			angle = random.nextFloat() * 90.0f - 45.0f;				// has a random angle assigned to it between 45 and 135 degrees,
 			angularForce.set(MathUtils.sinDeg(angle) * END_IMPULSE, // with 0 pointing right, incrementing clockwise. That angle is used
 					MathUtils.cosDeg(angle) * END_IMPULSE);			// to calculate a Vector representing the force which should be
 			o.setState(OrbData.State.GAME_OVER, removePoint);		// applied to the orb when it bounces off screen. The orb is set to
@@ -292,12 +431,71 @@ public class OrbLayer implements GameLayer {
 		}
 	}
 	
+	/**
+	 * Seeds the random numbers used to spawn and colour orbs, so that the same seed and input always play out the same game.
+	 * @param seed The seed to use.
+	 */
+	public void setSeed(long seed) {
+		random.setSeed(seed);
+		palette.setSeed(seed);
+	}
+	
+	/**
+	 * Sets whether or not orbs which have settled onto the magnet are frozen by putting them to sleep, so that the physics simulation
+	 * only pays for orbs which are still moving. Turning freezing off thaws every frozen orb.
+	 * @param freezing Whether or not settled orbs should be frozen.
+	 */
+	public void setFreezing(boolean freezing) {
+		this.freezing = freezing;
+		if(!freezing) freezer.thawAll();
+	}
+	
+	/**
+	 * @return Whether or not settled orbs are frozen.
+	 */
+	public boolean isFreezing() {
+		return freezing;
+	}
+	
+	/**
+	 * Sets the area of the world visible through the camera. Orbs well outside of it aren't drawn. The rectangle is kept, so changes
+	 * to it as the camera moves are picked up.
+	 * @param viewArea Rectangle representing the view area in in-game units, or null to draw every orb.
+	 */
+	public void setViewArea(Rectangle viewArea) {
+		this.viewArea = viewArea;
+	}
+	
+	/**
+	 * @return The view area grown by the cull margin, or null if the view area isn't known. Orbs outside of it aren't drawn.
+	 */
+	public Rectangle getCullArea() {
+		if(viewArea == null) return null;
+		return cullArea.set(viewArea.x - CULL_MARGIN, viewArea.y - CULL_MARGIN,
+				viewArea.width + CULL_MARGIN * 2, viewArea.height + CULL_MARGIN * 2);
+	}
+	
+	/**
+	 * @return Number of orbs drawn the last time the layer was drawn, including orbs selected by the player.
+	 */
+	public int getDrawn() {
+		return drawn + player.getDrawn();
+	}
+	
+	/**
+	 * @return Number of orbs culled the last time the layer was drawn, including orbs selected by the player.
+	 */
+	public int getCulled() {
+		return culled + player.getCulled();
+	}
+	
 	/**
 	 * Enables use of the AI. Will not be starting until a new game is created.
 	 * @param ai The ai object running on this layer.
 	 */
 	public void enableAI(AIPlayer ai) {
 		this.ai = ai;
+		buckets.update();	// Orbs may have crossed the edge of the AI's field while no AI was tracking them.
 	}
 	
 	/**
@@ -331,6 +529,58 @@ public class OrbLayer implements GameLayer {
 		}
 	}
 	
+	/**
+	 * Creates a new sprite using the named texture from the game atlas. If the layer is headless the sprite has no texture.
+	 * @param texture File name of the texture the sprite should use.
+	 * @return The newly created sprite.
+	 */
+	private Sprite createSprite(String texture) {
+		if(assets == null) return new Sprite();					// Headless layers are never drawn so their sprites need no texture.
+		return new Sprite(GameAtlas.findRegion(assets, texture));	// Otherwise the texture is found in the atlas.
+	}
+	
+	/**
+	 * @return Whether or not a game is currently being played.
+	 */
+	public boolean isPlaying() {
+		return playing;
+	}
+	
+	/**
+	 * @return Points scored during the current, or most recently finished, game.
+	 */
+	public int getScore() {
+		return score;
+	}
+	
+	/**
+	 * @return Time in seconds the current, or most recently finished, game has lasted.
+	 */
+	public float getGameTime() {
+		return gameTime;
+	}
+	
+	/**
+	 * @return Number of games which have ended on this layer.
+	 */
+	public int getGamesPlayed() {
+		return gamesPlayed;
+	}
+	
+	/**
+	 * @return Number of orbs joined to the magnet when the most recent game ended.
+	 */
+	public int getSettledOrbs() {
+		return settledOrbs;
+	}
+	
+	/**
+	 * @return Reference to the border on this screen.
+	 */
+	public OrbData getBorder() {
+		return border;
+	}
+	
 	/**
 	 * @return Reference to the magnet on this screen.
 	 */
@@ -0,0 +1,93 @@
+package psyknz.libgdx.orbgame.misc;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.TextureAtlasLoader.TextureAtlasParameter;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Packs every texture the game draws with into a single texture atlas when the game loads. Drawing from one texture means the
+ * SpriteBatch never has to flush because the texture changed, so a whole frame can be drawn in one draw call. The atlas is loaded
+ * through the asset manager like any other asset by its own loader, which reads and packs the textures as pixmaps in the background
+ * and uploads the packed pages once done. The asset manager then owns the atlas and disposes of it with everything else.
+ */
+public class GameAtlas {
+
+	public static final String ATLAS = "orbgame.atlas";	// Name the packed atlas is stored under in the asset manager.
+	public static final String[] TEXTURES = {			// File names of every texture packed into the atlas.
+		"white_circle.png", "white_torus.png", "pointer.png", "game_logo.png", "singleplayer.png"
+	};
+	public static final int PAGE_SIZE = 2048;	// Width and height of each page of the atlas in pixels.
+	public static final int PADDING = 2;		// Number of pixels left empty between packed textures.
+
+	/**
+	 * Loads textures and packs them into an atlas. Reading and packing the pixmaps happens off the rendering thread, while the packed
+	 * pages are uploaded as textures on it.
+	 */
+	public static class Loader extends AsynchronousAssetLoader<TextureAtlas, TextureAtlasParameter> {
+
+		private PixmapPacker packer;	// Packer holding the textures packed so far, until its pages are uploaded.
+
+		/**
+		 * Creates a new loader.
+		 * @param resolver Resolver the files of the packed textures are found with.
+		 */
+		public Loader(FileHandleResolver resolver) {
+			super(resolver);
+		}
+
+		@Override
+		@SuppressWarnings("rawtypes")
+		public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, TextureAtlasParameter parameter) {
+			return null;	// The textures are read by the loader itself so that their pixmaps can be released once packed.
+		}
+
+		@Override
+		public void loadAsync(AssetManager manager, String fileName, FileHandle file, TextureAtlasParameter parameter) {
+			packer = new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Pixmap.Format.RGBA8888, PADDING, true);	// Every texture is read,
+			for(int i = 0; i < TEXTURES.length; i++) {												// packed into the same page
+				Pixmap pixmap = new Pixmap(resolve(TEXTURES[i]));									// and its pixmap released.
+				packer.pack(TEXTURES[i], pixmap);													//
+				pixmap.dispose();																	//
+			}
+		}
+
+		@Override
+		public TextureAtlas loadSync(AssetManager manager, String fileName, FileHandle file, TextureAtlasParameter parameter) {
+			TextureAtlas atlas = packer.generateTextureAtlas(TextureFilter.Nearest, TextureFilter.Nearest, false);	// The atlas is
+			packer = null;																							// uploaded.
+			// The packer isn't disposed since its pages back the atlas textures, which need them if the GL context is lost.
+			return atlas;
+		}
+	}
+
+	/**
+	 * Queues loading the atlas, packing every texture in it once they are loaded.
+	 * @param assets Asset manager the atlas is loaded by.
+	 */
+	public static void load(AssetManager assets) {
+		assets.setLoader(TextureAtlas.class, ATLAS, new Loader(new InternalFileHandleResolver()));	// Only the packed atlas uses the loader.
+		assets.load(ATLAS, TextureAtlas.class);
+	}
+
+	/**
+	 * Finds the region of the atlas holding the named texture.
+	 * @param assets Asset manager holding the packed atlas.
+	 * @param texture File name of the texture.
+	 * @return Region of the atlas the texture was packed into.
+	 */
+	public static TextureRegion findRegion(AssetManager assets, String texture) {
+		TextureRegion region = assets.get(ATLAS, TextureAtlas.class).findRegion(texture);
+		if(region == null) throw new IllegalArgumentException(texture + " was not packed into the atlas.");
+		return region;
+	}
+}
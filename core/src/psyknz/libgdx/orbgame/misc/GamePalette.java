@@ -1,9 +1,9 @@
 package psyknz.libgdx.orbgame.misc;
 
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
 import com.badlogic.gdx.math.Vector3;
-import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
 
 public class GamePalette {
 	
@@ -13,14 +13,16 @@ public class GamePalette {
 	public static final int LIST_REPETITIONS = 3;	// Maximum number of times a color is placed in the array of random colors.
 	
 	private Color[] colors;			// Array of the colors available to use in the current playthrough.
-	private Array<Color> colorList;	// List of colors assorted randomly used when generating orbs.
+	private IntArray colorList;		// List of indices of colors assorted randomly used when generating orbs.
+	private RandomXS128 random;		// Random numbers for this palette only, as MathUtils.random is also drawn on by libgdx's maps.
 	
 	/** 
 	 * Creates a new GamePalette object with the number of colours specified in the argument, based around a random hue.
 	 * @param numColors Number of colors the first palette generated should contain. 
 	 */
 	public GamePalette(int numColors) {
-		generatePalette(MathUtils.random(360.0f), numColors);	// Generates an initial palette based on a random hue.
+		random = new RandomXS128();								// Creates the palettes own source of random numbers.
+		generatePalette(random.nextFloat() * 360.0f, numColors);	// Generates an initial palette based on a random hue.
 	}
 	
 	/**
@@ -28,6 +30,7 @@ public class GamePalette {
 	 * @param colorVectors List of vectors to  convert into colors.
 	 */
 	public GamePalette(Vector3... colorVectors) {
+		random = new RandomXS128();		// Creates the palettes own source of random numbers.
 		generatePalette(colorVectors);	// Generates an initial palette based on the array of vectors provided.
 	}
 	
@@ -81,19 +84,36 @@ public class GamePalette {
 	 * @return Reference to a random color. 
 	 */
 	public Color getRandomColor() {
-		if(colorList == null) colorList = new Array<Color>();	// If an array hasn't yet been created to hold randomised color, it is.
+		return colors[getRandomColorIndex()];
+	}
+	
+	/** 
+	 * Returns the index of a random color from the list of predefined colors using a shuffled list without replacement. 
+	 * @return Index of a random color in the palette. 
+	 */
+	public int getRandomColorIndex() {
+		if(colorList == null) colorList = new IntArray();	// If an array hasn't yet been created to hold randomised color, it is.
 		
 		if(colorList.size <= 1) {								// If the list of colors to choose from is empty a new list is generated.			
 			for(int num = 0; num < LIST_REPETITIONS; num++) {	// The list is filled with three of each color,
 				for(int i = 0; i < colors.length; i++) {		// using colors available in the current theme.
-					colorList.add(colors[i]);					// Colors are added sequentially.
+					colorList.add(i);							// Colors are added sequentially.
 				}
 			}
-			colorList.shuffle(); // Shuffles the newly generated list to allow for randomisation.
+			for(int i = colorList.size - 1; i > 0; i--) colorList.swap(i, random.nextInt(i + 1));	// Shuffles the newly generated list.
 		}
 		return colorList.pop(); // Returns the color at the end of the list.
 	}
 	
+	/**
+	 * Seeds the random numbers used to choose colors, so that the same seed always gives the same order of colors.
+	 * @param seed The seed to use.
+	 */
+	public void setSeed(long seed) {
+		random.setSeed(seed);
+		if(colorList != null) colorList.clear();	// Any colors already shuffled are discarded.
+	}
+	
 	/** 
 	 * Rotates the given value to keep it between 0 and 360 degrees while maintaining its relative position.
 	 * @param val The value you want constrained to 360 degree space.
@@ -0,0 +1,152 @@
+package psyknz.libgdx.orbgame.misc;
+
+/**
+ * Schedules tasks against the game clock, which only moves while the scheduler is updated and can be paused or scaled. Tasks are
+ * created once by their owners and reused every time they are scheduled, and the timers holding them are recycled by a timer wheel,
+ * so scheduling during play allocates nothing. Scheduling returns a token which can be used to cancel the task, and which stops
+ * cancelling anything once the task has finished.
+ */
+public class GameScheduler {
+	
+	/**
+	 * Task which may be scheduled any number of times, each time with an object of the type it acts on.
+	 * @param <T> Type of object the task acts on.
+	 */
+	public static abstract class Task<T> implements TimerWheel.Listener {
+		
+		@Override
+		@SuppressWarnings("unchecked")
+		public final void onTimer(long handle, Object data) {
+			run((T) data);
+		}
+		
+		/**
+		 * Called when the task is due.
+		 * @param data The object the task was scheduled with.
+		 */
+		public abstract void run(T data);
+	}
+	
+	public static final long NONE = TimerWheel.NONE;	// Token which never refers to a scheduled task.
+	
+	private TimerWheel wheel;	// Wheel holding the timer for every scheduled task.
+	private float timeScale;	// Rate the game clock moves at compared to real time.
+	private boolean paused;		// Whether or not the game clock is stopped.
+	
+	/**
+	 * Creates a new scheduler with its clock running at normal speed.
+	 */
+	public GameScheduler() {
+		wheel = new TimerWheel();
+		timeScale = 1;
+	}
+	
+	/**
+	 * Moves the game clock forwards, running every task which becomes due. Nothing happens while paused.
+	 * @param delta Time in seconds since the last update.
+	 */
+	public void update(float delta) {
+		if(!paused) wheel.update(delta * timeScale);
+	}
+	
+	/**
+	 * Schedules a task to run once.
+	 * @param task The task to run.
+	 * @param data The object the task should act on.
+	 * @param delay Time in seconds on the game clock before the task runs.
+	 * @return Token which may be used to cancel the task.
+	 */
+	public <T> long schedule(Task<T> task, T data, float delay) {
+		return wheel.schedule(task, data, delay);
+	}
+	
+	/**
+	 * Schedules a task to run after a delay and then repeat at an interval.
+	 * @param task The task to run.
+	 * @param data The object the task should act on.
+	 * @param delay Time in seconds on the game clock before the task first runs.
+	 * @param interval Time in seconds on the game clock between repeats.
+	 * @param repeats Number of times the task repeats after first running, or -1 to repeat until cancelled.
+	 * @return Token which may be used to cancel the task.
+	 */
+	public <T> long schedule(Task<T> task, T data, float delay, float interval, int repeats) {
+		return wheel.schedule(task, data, delay, interval, repeats);
+	}
+	
+	/**
+	 * Cancels a scheduled task. Nothing happens if it has already run or been cancelled.
+	 * @param token Token returned when the task was scheduled.
+	 * @return Always NONE, so that the field holding the token can be cleared as it is cancelled.
+	 */
+	public long cancel(long token) {
+		wheel.cancel(token);
+		return NONE;
+	}
+	
+	/**
+	 * Cancels every scheduled task.
+	 */
+	public void cancelAll() {
+		wheel.clear();
+	}
+	
+	/**
+	 * @param token Token returned when a task was scheduled.
+	 * @return Whether or not the task is still waiting to run.
+	 */
+	public boolean isScheduled(long token) {
+		return wheel.isScheduled(token);
+	}
+	
+	/**
+	 * @param token Token returned when a task was scheduled.
+	 * @return Time in seconds on the game clock before the task runs, or 0 if it isn't waiting.
+	 */
+	public float getRemaining(long token) {
+		return wheel.getRemaining(token);
+	}
+	
+	/**
+	 * @return Number of tasks waiting to run.
+	 */
+	public int getSize() {
+		return wheel.getSize();
+	}
+	
+	/**
+	 * Stops the game clock so that no task becomes due.
+	 */
+	public void pause() {
+		paused = true;
+	}
+	
+	/**
+	 * Starts the game clock again after it was paused.
+	 */
+	public void resume() {
+		paused = false;
+	}
+	
+	/**
+	 * @return Whether or not the game clock is stopped.
+	 */
+	public boolean isPaused() {
+		return paused;
+	}
+	
+	/**
+	 * Sets how fast the game clock moves compared to real time.
+	 * @param timeScale The new rate, where 1 is real time.
+	 */
+	public void setTimeScale(float timeScale) {
+		assert timeScale >= 0;	// The game clock can't run backwards.
+		this.timeScale = timeScale;
+	}
+	
+	/**
+	 * @return Rate the game clock moves at compared to real time.
+	 */
+	public float getTimeScale() {
+		return timeScale;
+	}
+}
@@ -0,0 +1,347 @@
+package psyknz.libgdx.orbgame.misc;
+
+/**
+ * Hierarchical timer wheel which fires listeners once their delay has passed. Time is counted in ticks of RESOLUTION seconds and every
+ * timer waits in a slot of one of four wheels of 64 slots, the first covering the next 64 ticks and each after it 64 times as long.
+ * Timers drop down a wheel as their deadline comes closer and fire from the first. Timers due further away than the last wheel covers
+ * wait in an overflow list which is checked each time the last wheel turns. Scheduling and cancelling are O(1), and advancing the
+ * wheel only visits slots which hold timers plus one slot every 64 ticks, so waiting timers cost nothing each frame.
+ * <p>
+ * Timers are nodes held in plain arrays which are recycled once the timer finishes. Each timer is identified by a handle which stops
+ * being valid when its node is recycled, so a stale handle can be cancelled safely.
+ */
+public class TimerWheel {
+
+	/**
+	 * Receives timers as they fire.
+	 */
+	public interface Listener {
+
+		/**
+		 * Called when a timer fires. A timer which won't repeat has already been removed, so its handle is no longer valid.
+		 * @param handle Handle of the timer which fired.
+		 * @param data Object the timer was scheduled with.
+		 */
+		public void onTimer(long handle, Object data);
+	}
+
+	public static final float RESOLUTION = 0.001f;	// Length of a tick in seconds.
+	public static final long NONE = -1;				// Handle which never refers to a timer.
+	public static final int REPEAT_FOREVER = -1;	// Number of repeats for a timer which repeats until cancelled.
+
+	private static final int WHEEL_BITS = 6;					// Each wheel has 2^6 = 64 slots
+	private static final int WHEEL_SIZE = 1 << WHEEL_BITS;		//
+	private static final int WHEEL_MASK = WHEEL_SIZE - 1;		//
+	private static final int NUM_WHEELS = 4;					// and there are 4 wheels, covering 2^24 ticks, over 4 hours.
+	private static final int OVERFLOW = NUM_WHEELS * WHEEL_SIZE;	// Slot holding timers due after the wheels have turned fully.
+	private static final int NIL = -1;							// Index meaning no node.
+
+	private long now;		// Tick the wheel has advanced to.
+	private double time;	// Time in seconds the wheel has advanced by, including any fraction of a tick.
+
+	private int[] heads;		// Index of the first node in each slot of every wheel, followed by the overflow list.
+	private long[] occupied;	// For each wheel, a bit for each slot which holds a node.
+
+	private long[] deadline;		// Tick each node fires at.
+	private float[] interval;		// Time in seconds between repeats of each node.
+	private int[] repeats;			// Number of repeats each node has left, or REPEAT_FOREVER.
+	private int[] generation;		// Number of times each node has been recycled, so that old handles can be recognised.
+	private int[] slot;				// Wheel and slot each node waits in, or NIL if it isn't waiting.
+	private int[] next, prev;		// Links to the nodes either side in the same slot, or to the next free node.
+	private Listener[] listeners;	// Listener each node fires.
+	private Object[] data;			// Object each node was scheduled with.
+	private int free;				// Index of the first free node.
+	private int size;				// Number of timers waiting.
+
+	/**
+	 * Creates a new empty wheel at time 0.
+	 */
+	public TimerWheel() {
+		heads = new int[OVERFLOW + 1];
+		for(int i = 0; i < heads.length; i++) heads[i] = NIL;
+		occupied = new long[NUM_WHEELS];
+		free = NIL;
+		grow(16);	// Makes room for the first timers.
+	}
+
+	/**
+	 * Schedules a timer which fires once.
+	 * @param listener Listener to fire.
+	 * @param data Object passed to the listener when the timer fires.
+	 * @param delay Time in seconds before the timer fires.
+	 * @return Handle of the timer.
+	 */
+	public long schedule(Listener listener, Object data, float delay) {
+		return schedule(listener, data, delay, 0, 0);
+	}
+
+	/**
+	 * Schedules a timer which fires after a delay and then repeats at an interval.
+	 * @param listener Listener to fire.
+	 * @param data Object passed to the listener when the timer fires.
+	 * @param delay Time in seconds before the timer first fires.
+	 * @param interval Time in seconds between repeats.
+	 * @param repeats Number of times the timer repeats after first firing, or REPEAT_FOREVER.
+	 * @return Handle of the timer.
+	 */
+	public long schedule(Listener listener, Object data, float delay, float interval, int repeats) {
+		if(free == NIL) grow(deadline.length * 2);	// More nodes are made if none are free.
+		int i = free;								// A free node is taken
+		free = next[i];								//
+		listeners[i] = listener;					// and set up.
+		this.data[i] = data;						//
+		this.interval[i] = interval;				//
+		this.repeats[i] = repeats;					//
+		insert(i, deadlineAfter(delay));			// It then waits in the wheels.
+		size++;
+		return handle(i);
+	}
+
+	/**
+	 * Cancels a timer. Nothing happens if the timer has already finished or been cancelled.
+	 * @param handle Handle of the timer.
+	 * @return Whether or not a timer was cancelled.
+	 */
+	public boolean cancel(long handle) {
+		int i = find(handle);
+		if(i == NIL) return false;
+		unlink(i);
+		recycle(i);
+		size--;
+		return true;
+	}
+
+	/**
+	 * Cancels every timer.
+	 */
+	public void clear() {
+		for(int s = 0; s < heads.length; s++) {
+			while(heads[s] != NIL) {
+				int i = heads[s];
+				unlink(i);
+				recycle(i);
+			}
+		}
+		size = 0;
+	}
+
+	/**
+	 * Moves time forward, firing every timer whose deadline passes in the order their deadlines fall.
+	 * @param delta Time in seconds to move forward by.
+	 */
+	public void update(float delta) {
+		time += delta;
+		long target = (long) Math.floor(time / RESOLUTION);
+
+		while(now < target) {
+			int s = (int) (now & WHEEL_MASK);									// The next tick needing attention is either
+			long mask = s == WHEEL_MASK ? 0 : occupied[0] & (-1L << (s + 1));	// the next slot of the first wheel holding timers,
+			long tick = mask != 0 ? (now & ~WHEEL_MASK) + Long.numberOfTrailingZeros(mask)
+					: (now | WHEEL_MASK) + 1;									// or the start of the first wheels next turn.
+			if(tick > target) {													// Nothing else happens before the target
+				now = target;													// so the wheel can jump straight to it.
+				break;
+			}
+
+			now = tick;
+			if((now & WHEEL_MASK) == 0) cascade(1);	// At the start of a turn timers from the next wheel drop down.
+			fire((int) (now & WHEEL_MASK));			// Every timer due now then fires.
+		}
+	}
+
+	/**
+	 * @param handle Handle of a timer.
+	 * @return Whether or not the timer is still waiting to fire.
+	 */
+	public boolean isScheduled(long handle) {
+		return find(handle) != NIL;
+	}
+
+	/**
+	 * @param handle Handle of a timer.
+	 * @return Time in seconds before the timer fires, or 0 if it isn't waiting.
+	 */
+	public float getRemaining(long handle) {
+		int i = find(handle);
+		if(i == NIL) return 0;
+		return (float) Math.max(0, deadline[i] * (double) RESOLUTION - time);
+	}
+
+	/**
+	 * @return Number of timers waiting to fire.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @return Time in seconds the wheel has advanced by since it was created.
+	 */
+	public double getTime() {
+		return time;
+	}
+
+	/**
+	 * Finds the first tick at or after the given delay from now. Timers always wait at least one tick.
+	 */
+	private long deadlineAfter(float delay) {
+		long tick = (long) Math.ceil((time + delay) / RESOLUTION);
+		return Math.max(now + 1, tick);
+	}
+
+	/**
+	 * Places a node in the slot of the wheel matching how far away its deadline is.
+	 */
+	private void insert(int i, long when) {
+		deadline[i] = when;
+		long ticks = when - now;
+		int index = OVERFLOW;												// Deadlines beyond every wheel overflow.
+		if(ticks < 1L << (NUM_WHEELS * WHEEL_BITS)) {						// Otherwise
+			int wheel = 0;													// the wheel covering the deadline is found
+			while(ticks >= 1L << ((wheel + 1) * WHEEL_BITS)) wheel++;		// along with the slot in that wheel.
+			int s = (int) ((when >>> (wheel * WHEEL_BITS)) & WHEEL_MASK);	//
+			index = wheel * WHEEL_SIZE + s;									//
+			occupied[wheel] |= 1L << s;										//
+		}
+
+		slot[i] = index;					// The node is linked in at the front of the slot.
+		prev[i] = NIL;						//
+		next[i] = heads[index];				//
+		if(heads[index] != NIL) prev[heads[index]] = i;
+		heads[index] = i;
+	}
+
+	/**
+	 * Removes a node from the slot it waits in.
+	 */
+	private void unlink(int i) {
+		int index = slot[i];
+		if(prev[i] != NIL) next[prev[i]] = next[i];
+		else heads[index] = next[i];
+		if(next[i] != NIL) prev[next[i]] = prev[i];
+		if(heads[index] == NIL && index != OVERFLOW) occupied[index / WHEEL_SIZE] &= ~(1L << (index & WHEEL_MASK));
+		slot[i] = NIL;
+	}
+
+	/**
+	 * Drops the timers in the current slot of the given wheel down to the wheels below, cascading the wheel above first if it has also
+	 * turned. Once the last wheel turns the overflowing timers are placed again, and those now in range of the wheels join them.
+	 */
+	private void cascade(int wheel) {
+		if(wheel >= NUM_WHEELS) {
+			int i = heads[OVERFLOW];	// The list is taken whole
+			heads[OVERFLOW] = NIL;		// since timers still out of range go straight back onto it.
+			while(i != NIL) {
+				int after = next[i];
+				insert(i, deadline[i]);
+				i = after;
+			}
+			return;
+		}
+		int s = (int) ((now >>> (wheel * WHEEL_BITS)) & WHEEL_MASK);
+		if(s == 0) cascade(wheel + 1);
+		int index = wheel * WHEEL_SIZE + s;
+		while(heads[index] != NIL) {
+			int i = heads[index];
+			unlink(i);
+			insert(i, deadline[i]);
+		}
+	}
+
+	/**
+	 * Fires every timer in the given slot of the first wheel. Timers are taken one at a time so that listeners can cancel other timers.
+	 */
+	private void fire(int s) {
+		while(heads[s] != NIL) {
+			int i = heads[s];
+			unlink(i);
+			long handle = handle(i);
+			Listener listener = listeners[i];
+			Object object = data[i];
+
+			if(repeats[i] != 0) {							// Timers which repeat wait again
+				if(repeats[i] > 0) repeats[i]--;			// before their listener is called
+				insert(i, deadlineAfter(interval[i]));		// so that it may cancel them.
+			}
+			else {											// Otherwise the timer is finished.
+				recycle(i);
+				size--;
+			}
+			listener.onTimer(handle, object);
+		}
+	}
+
+	/**
+	 * @return Index of the node the handle refers to if it is still waiting, otherwise NIL.
+	 */
+	private int find(long handle) {
+		if(handle < 0) return NIL;
+		int i = (int) (handle & 0xFFFFFFFFL);
+		if(i >= deadline.length || generation[i] != (int) (handle >>> 32) || slot[i] == NIL) return NIL;
+		return i;
+	}
+
+	/**
+	 * @return Handle of the node at the given index.
+	 */
+	private long handle(int i) {
+		return ((long) generation[i] << 32) | i;
+	}
+
+	/**
+	 * Returns a node to the free list, invalidating its handle.
+	 */
+	private void recycle(int i) {
+		generation[i] = (generation[i] + 1) & Integer.MAX_VALUE;	// Old handles no longer match the node.
+		listeners[i] = null;										// References are released
+		data[i] = null;												// so they can be collected.
+		next[i] = free;
+		free = i;
+	}
+
+	/**
+	 * Grows the node arrays to the given capacity, adding every new node to the free list.
+	 */
+	private void grow(int capacity) {
+		int old = deadline == null ? 0 : deadline.length;
+		deadline = copyOf(deadline, capacity);
+		interval = copyOf(interval, capacity);
+		repeats = copyOf(repeats, capacity);
+		generation = copyOf(generation, capacity);
+		slot = copyOf(slot, capacity);
+		next = copyOf(next, capacity);
+		prev = copyOf(prev, capacity);
+		Listener[] newListeners = new Listener[capacity];
+		Object[] newData = new Object[capacity];
+		if(old > 0) {
+			System.arraycopy(listeners, 0, newListeners, 0, old);
+			System.arraycopy(data, 0, newData, 0, old);
+		}
+		listeners = newListeners;
+		data = newData;
+
+		for(int i = capacity - 1; i >= old; i--) {	// New nodes are added to the free list.
+			slot[i] = NIL;
+			next[i] = free;
+			free = i;
+		}
+	}
+
+	private static long[] copyOf(long[] array, int length) {
+		long[] newArray = new long[length];
+		if(array != null) System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+
+	private static float[] copyOf(float[] array, int length) {
+		float[] newArray = new float[length];
+		if(array != null) System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+
+	private static int[] copyOf(int[] array, int length) {
+		int[] newArray = new int[length];
+		if(array != null) System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+}
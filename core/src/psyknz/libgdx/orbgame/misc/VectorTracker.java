@@ -1,110 +1,233 @@
 package psyknz.libgdx.orbgame.misc;
 
-import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.math.Vector2;
 
+/**
+ * Records a trail of co-ordinates, such as touch input, newest first. Co-ordinates are held in a ring of plain floats alongside their
+ * arc length, a running total of the distance along the trail which grows towards the newest co-ordinate. The distance between any two
+ * co-ordinates is the difference of their arc lengths, so recording a co-ordinate and trimming the trail back to its distance only touch
+ * the ends of the ring, and points along the trail are found by searching the arc lengths rather than walking the trail.
+ */
 public class VectorTracker {
-	
-	private Array<Vector2> coords; // Array containing recorded Vector2 co-ordinates.
-	
+
+	public static final float MAX_ARC = 10000;	// Arc length past which arc lengths are measured from the oldest co-ordinate again.
+
+	private float[] x, y;	// Ring of recorded co-ordinates.
+	private float[] arc;	// Arc length of each co-ordinate, increasing towards the newest.
+	private int head;		// Index in the ring of the newest co-ordinate.
+	private int size;		// Number of co-ordinates recorded.
+
 	private float distance; /* Distance recorded vectors should cover if strung together in order in game units.
 	* This number can be exceeded by the last recorded co-ordinate to prevent under-estimation of fast swipes. */
-	
-	private float len, dst; // Placeholder variables used when processing the touch co-ordinates.
-	
+
 	/** Creates a new TouchTracker with an initial length to record.
 	 * @param distance Initial distance across co-ordinates the VectorTracker should maintain. */
 	public VectorTracker(float distance) {
-		coords = new Array<Vector2>();	// Creates a new array to track vector co-ordinates.
-		this.distance = distance;		// Sets the length the array should be.
+		x = new float[16];			// Creates the ring to track vector co-ordinates.
+		y = new float[16];			//
+		arc = new float[16];		//
+		this.distance = distance;	// Sets the length the trail should be.
 	}
-	
-	/** Adds the given vector to the list of vector co-ordinates. 
+
+	/** Adds the given vector to the front of the list of vector co-ordinates.
 	 * @param vector The vector you want added to the list of touch co-ordinates.*/
 	public void addVector(Vector2 vector) {
-		coords.insert(0, vector);	// Adds a new touch co-ordinate to the front of the array.
-		trimToDistance();			// Ensures the length of the array doesn't exceed the current maximum length.
+		addVector(vector.x, vector.y);
 	}
-	
-	/** Adds the given x, y co-ordinate to the list of recorded touches as a vector.  
+
+	/** Adds the given x, y co-ordinate to the front of the list of recorded touches.
 	 * @param x X co-ordinate of the touch.
 	 * @param y Y co-ordinate of the touch. */
 	public void addVector(float x, float y) {
-		Vector2 vec = new Vector2(x, y);	// Creates a new Vector2 to represent the touch location.
-		addVector(vec);						// Adds the newly created touch co-ordinate to the list of co-ordinates.
+		ensureCapacity(size + 1);
+		float a = size > 0 ? arc[head] + dst(head, x, y) : 0;		// The new co-ordinate is further along the trail than the newest
+		head = (head - 1 + this.x.length) % this.x.length;			// and becomes the newest.
+		this.x[head] = x;											//
+		this.y[head] = y;											//
+		arc[head] = a;												//
+		size++;														//
+		trimToDistance();	// Ensures the length of the trail doesn't exceed the current maximum length.
 	}
-	
+
+	/** Adds the given vector to the end of the list of vector co-ordinates, behind every recorded co-ordinate.
+	 * @param vector The vector you want added to the end of the list. */
 	public void addVectorToEnd(Vector2 vector) {
-		coords.add(vector);
+		addVectorToEnd(vector.x, vector.y);
 	}
-	
-	/** Removes any recorded co-ordinates which extend beyond the distance this TouchTracker is tracking. */
+
+	/** Adds the given x, y co-ordinate to the end of the list of recorded touches, behind every recorded co-ordinate.
+	 * @param x X co-ordinate of the touch.
+	 * @param y Y co-ordinate of the touch. */
+	public void addVectorToEnd(float x, float y) {
+		ensureCapacity(size + 1);
+		int oldest = index(size - 1), tail = index(size);			// The new co-ordinate goes behind the oldest
+		arc[tail] = size > 0 ? arc[oldest] - dst(oldest, x, y) : 0;	// and further back along the trail.
+		this.x[tail] = x;											//
+		this.y[tail] = y;											//
+		size++;
+	}
+
+	/** Removes any recorded co-ordinates which extend beyond the distance this TouchTracker is tracking. The oldest co-ordinate is
+	 * removed for as long as the trail without it still covers the distance. */
 	public void trimToDistance() {
-		if(coords.size > 1) {										// Trims the length of the array only if there are more than two co-ordinates.
-			len = 0;												// the current assessed length is set to 0.
-			for(int i = 1; i < coords.size; i++) {					// For every co-ordinate in the array,
-				if(len < distance) {								// if the current length is less than the array length,
-					len += coords.get(i).dst(coords.get(i - 1));	// the distance between the current co-ordinate and the last is added to the current length.
-				}
-				else {										// If the current length exceeds the array length,
-					coords.removeRange(i, coords.size - 1);	// then all additional co-ordinates are removed from the record,
-					break;									// and the process is stopped.
-				}
-			}
+		while(size > 1 && getDistance(size - 2) >= distance) size--;	// While the oldest co-ordinate isn't needed it is removed.
+
+		if(size == 1) arc[head] = 0;								// Arc lengths are measured from the oldest co-ordinate
+		else if(size > 1 && Math.abs(arc[head]) > MAX_ARC) {		// again before they grow large enough to lose precision.
+			float base = arc[index(size - 1)];						//
+			for(int i = 0; i < size; i++) arc[index(i)] -= base;	//
 		}
 	}
-	
-	/** Sets a new maximum distance for the TouchTracker to record and trims the current records to length. 
+
+	/** Sets a new maximum distance for the TouchTracker to record and trims the current records to length.
 	 * @param length Distance the TouchTracker should record co-ordinates over. */
 	public void setDistance(float length) {
-		this.distance = length;	// Sets a new length in i-game units for the array.
-		trimToDistance();		// Ensures the length of the array is within the newly set maximum length.
-	}
-	
-	/**	
-	 * Function to produce an array of evenly spaced co-ordinates which follow the path generated by the string of recorded user
-	 * touch inputs. Co-ordinates are interpolated in between recorded co-ordinates. 
-	 * @param newCoords The array you want filled with co-ordinates. Avoids creating unnecessary variables.
+		this.distance = length;	// Sets a new length in i-game units for the trail.
+		trimToDistance();		// Ensures the length of the trail is within the newly set maximum length.
+	}
+
+	/**
+	 * Function to produce evenly spaced co-ordinates which follow the path generated by the string of recorded user touch inputs.
+	 * Co-ordinates are interpolated in between recorded co-ordinates and written into the arrays given, starting with the newest.
+	 * Each co-ordinate is found by searching the arc lengths onwards from the last, so the cost depends on the number requested rather
+	 * than the number recorded. Co-ordinates beyond the end of the trail are placed on the oldest recorded co-ordinate.
+	 * @param newX The array you want filled with x co-ordinates. Must hold at least num co-ordinates.
+	 * @param newY The array you want filled with y co-ordinates. Must hold at least num co-ordinates.
 	 * @param num The number of co-ordinates you want interpolated.
 	 * @param distance The distance between each interpolated co-ordinate.
-	 * @return Reference to the array which has just been filled with interpolated co-ordinates.
+	 * @return Number of co-ordinates written, which is num unless less than two co-ordinates are recorded or requested.
 	 */
-	public Array<Vector2> interpolateCoords(Array<Vector2> newCoords, int num, float distance) {
-		newCoords.clear();	// Clears the Array passed to hold the interpolated coords.
-		
-		if(coords.size > 1 && num > 1) {	// As long as there is more than 1 touch co-ordinate recorded and more than 1 requested,
-			newCoords.add(coords.first());	// the first recorded touch co-ordinate is added to the array before,
-			len = 0;							// the length in units of the record currently assessed is reset to 0.
-			
-			for(int i = 1; i < coords.size; i++) {			// Starts processing all recorded touch co-ordinates,
-				dst = coords.get(i).dst(coords.get(i - 1));	// and finds the distance between them.
-				len += dst;									// As it goes it adds the distance to the currently assessed length.
-				
-				if(len >= newCoords.size * distance) {								// If the current length assessed along the touch co-ordinates exceeds the distance to the next point,
-					Vector2 v = new Vector2(coords.get(i - 1));						// a new Vector2 is created to represent an interpolated co-ordinate.
-					float alpha = (distance * newCoords.size + dst - len) / dst;	// Calculates a fraction representing the interpolated point.
-					v.lerp(coords.get(i), alpha);									// Lerps the new vector by alpha so that it holds the x, y co-ordinate of the interpolated point.
-					newCoords.add(v);												// Adds the interpolated point to the array.
-				}
-				if(newCoords.size >= num) {	// If the array reaches the target number of interpolated co-ordinates,
-					return newCoords;		// it is returned to stop the function processing any further.
-				}
+	public int interpolateCoords(float[] newX, float[] newY, int num, float distance) {
+		if(size > 1 && num > 1) {			// As long as there is more than 1 touch co-ordinate recorded and more than 1 requested,
+			newX[0] = x[head];				// the first recorded touch co-ordinate is written before
+			newY[0] = y[head];				// the rest are placed along the trail.
+			float length = getLength();		//
+			int i = 1;						// Index of the first co-ordinate at least as far along the trail as the current point.
+
+			int count = 1;
+			for(; count < num; count++) {
+				float target = count * distance;			// Distance along the trail the point should be placed at.
+				if(target >= length) break;					// Points past the end of the trail are all placed on the oldest.
+				i = search(target, i);						// Finds the segment the point lies on
+				int a = index(i - 1), b = index(i);			// and interpolates between its ends.
+				float dst = arc[a] - arc[b];				//
+				float alpha = dst > 0 ? (target - getDistance(i - 1)) / dst : 0;
+				newX[count] = x[a] + (x[b] - x[a]) * alpha;	//
+				newY[count] = y[a] + (y[b] - y[a]) * alpha;	//
 			}
-			while(newCoords.size < num) {		// As long as the array hasn't been filled,
-				newCoords.add(coords.peek());	// the last recorded co-ordinate is added to the array to bulk it out.
+
+			int tail = index(size - 1);
+			for(; count < num; count++) {	// As long as the arrays haven't been filled,
+				newX[count] = x[tail];		// the last recorded co-ordinate is written to bulk them out.
+				newY[count] = y[tail];		//
 			}
+			return count;
+		}
+		else if(size > 0 && num > 0) {	// If there is only 1 recorded co-ordinate, or only one is requested,
+			newX[0] = x[head];			// the first touch co-ordinate is written.
+			newY[0] = y[head];			//
+			return 1;
 		}
-		else if(coords.size > 0 && num > 0) {	// If there is only 1 recorded co-ordinate, or only one is requested,
-			newCoords.add(coords.first());		// the first touch co-ordinate is added to the array.
-		}		
-		else return null;	// If less than one co-ordinate is recorded or the user requests less than one, null is returned.
-		return newCoords;	// If not already returned, the filled array is returned.
+		return 0;	// If less than one co-ordinate is recorded or the user requests less than one, nothing is written.
+	}
+
+	/**
+	 * @return Number of co-ordinates recorded.
+	 */
+	public int getSize() {
+		return size;
 	}
-	
+
 	/**
-	 * @return The array containing all recorded vectors.
+	 * @param i Index of the co-ordinate, with 0 being the newest.
+	 * @return X co-ordinate recorded at the index.
 	 */
-	public Array<Vector2> getVectors() {
-		return coords;
+	public float getX(int i) {
+		return x[index(i)];
+	}
+
+	/**
+	 * @param i Index of the co-ordinate, with 0 being the newest.
+	 * @return Y co-ordinate recorded at the index.
+	 */
+	public float getY(int i) {
+		return y[index(i)];
+	}
+
+	/**
+	 * @param i Index of the co-ordinate, with 0 being the newest.
+	 * @return Distance along the trail from the newest co-ordinate to the co-ordinate at the index.
+	 */
+	public float getDistance(int i) {
+		return arc[head] - arc[index(i)];
+	}
+
+	/**
+	 * @return Length of the trail through every recorded co-ordinate.
+	 */
+	public float getLength() {
+		return size > 1 ? getDistance(size - 1) : 0;
+	}
+
+	/**
+	 * Finds the first co-ordinate at least the given distance along the trail, searching onwards from the given index. The search
+	 * gallops forwards from the index before narrowing in, so finding points in order costs little more than the steps between them.
+	 * @param target Distance along the trail from the newest co-ordinate, less than the length of the trail.
+	 * @param from Index to search onwards from, with 0 being the newest.
+	 * @return Index of the co-ordinate found.
+	 */
+	private int search(float target, int from) {
+		int lo = from, step = 1;							// Gallops forwards until a co-ordinate
+		int hi = Math.min(lo + step, size - 1);				// far enough along is found,
+		while(hi < size - 1 && getDistance(hi) < target) {	//
+			lo = hi + 1;									//
+			step *= 2;										//
+			hi = Math.min(lo + step, size - 1);				//
+		}
+		while(lo < hi) {									// then narrows in with a binary search.
+			int mid = (lo + hi) >>> 1;						//
+			if(getDistance(mid) < target) lo = mid + 1;		//
+			else hi = mid;									//
+		}
+		return lo;
+	}
+
+	/**
+	 * Finds where in the ring a co-ordinate is held.
+	 * @param i Index of the co-ordinate, with 0 being the newest.
+	 * @return Index of the co-ordinate in the ring.
+	 */
+	private int index(int i) {
+		return (head + i) % x.length;
+	}
+
+	/**
+	 * @return Distance between the co-ordinate held at the given index in the ring and the given point.
+	 */
+	private float dst(int i, float px, float py) {
+		float dx = px - x[i], dy = py - y[i];
+		return (float) Math.sqrt(dx * dx + dy * dy);
+	}
+
+	/**
+	 * Grows the ring if it can't hold the given number of co-ordinates, keeping the recorded co-ordinates in order.
+	 * @param capacity Number of co-ordinates the ring needs to hold.
+	 */
+	private void ensureCapacity(int capacity) {
+		if(capacity <= x.length) return;	// Nothing is done if there is already enough room.
+
+		int length = Math.max(capacity, x.length * 2);	// The ring doubles in size and is unwrapped
+		float[] newX = new float[length];				// so that the newest co-ordinate is at the start.
+		float[] newY = new float[length];				//
+		float[] newArc = new float[length];				//
+		for(int i = 0; i < size; i++) {					//
+			newX[i] = x[index(i)];						//
+			newY[i] = y[index(i)];						//
+			newArc[i] = arc[index(i)];					//
+		}												//
+		x = newX;										//
+		y = newY;										//
+		arc = newArc;									//
+		head = 0;										//
 	}
 }
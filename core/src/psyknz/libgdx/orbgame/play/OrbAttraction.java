@@ -0,0 +1,80 @@
+package psyknz.libgdx.orbgame.play;
+
+/**
+ * Steers every FREE orb towards its target in one batched pass. The orbs to steer are gathered first, their velocities are then
+ * worked out in a single loop over the snapshot's plain arrays, and only once every velocity is known are they written back to
+ * box2d. Keeping the maths apart from the native calls leaves the middle loop small enough for the JIT to optimise well.
+ */
+public class OrbAttraction {
+
+	private OrbStore store;			// Store containing the orbs to steer.
+	private OrbSnapshot snapshot;	// Snapshot holding where the orbs and their targets are.
+	private float speed;			// Speed FREE orbs travel at.
+
+	private int[] ids;				// Ids of the orbs being steered this pass.
+	private float[] vx, vy;			// Velocity worked out for each orb being steered, in the same order as the ids.
+	private int size;				// Number of orbs being steered this pass.
+
+	/**
+	 * Creates a new attraction stage for the orbs in the given store.
+	 * @param store The store containing the orbs.
+	 * @param snapshot The snapshot holding where the orbs and their targets are.
+	 * @param speed Speed FREE orbs should travel at.
+	 */
+	public OrbAttraction(OrbStore store, OrbSnapshot snapshot, float speed) {
+		this.store = store;
+		this.snapshot = snapshot;
+		this.speed = speed;
+
+		ids = new int[32];		// Makes room for the first orbs.
+		vx = new float[32];		//
+		vy = new float[32];		//
+	}
+
+	/**
+	 * Sets the velocity of every FREE orb so that it moves towards its target at the set speed.
+	 */
+	public void update() {
+		gather();
+
+		float[] x = snapshot.x, y = snapshot.y;						// The velocities are worked out using only
+		float[] targetX = snapshot.targetX, targetY = snapshot.targetY;	// the arrays.
+		float dx, dy, len2, scale;
+		for(int i = 0; i < size; i++) {
+			int id = ids[i];
+			dx = targetX[id] - x[id];								// Each orb heads straight for its target
+			dy = targetY[id] - y[id];								// at exactly the set speed.
+			len2 = dx * dx + dy * dy;								//
+			scale = len2 == 0 ? 0 : speed / (float) Math.sqrt(len2);	// An orb sitting on its target doesn't move.
+			vx[i] = dx * scale;
+			vy[i] = dy * scale;
+		}
+
+		for(int i = 0; i < size; i++) store.lookup(ids[i]).body.setLinearVelocity(vx[i], vy[i]);	// Finally box2d is updated.
+	}
+
+	/**
+	 * @return Number of orbs steered by the most recent pass.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Finds every orb in the store which is FREE and not frozen.
+	 */
+	private void gather() {
+		if(ids.length < store.size) {				// The arrays grow to fit every orb in the store.
+			int length = Math.max(store.size, ids.length * 2);
+			ids = new int[length];
+			vx = new float[length];
+			vy = new float[length];
+		}
+
+		size = 0;
+		for(int i = 0; i < store.size; i++) {
+			OrbData o = store.get(i);
+			if(o.getState() == OrbData.State.FREE && !o.isFrozen()) ids[size++] = o.id;
+		}
+	}
+}
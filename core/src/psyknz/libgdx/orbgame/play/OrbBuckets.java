@@ -0,0 +1,173 @@
+package psyknz.libgdx.orbgame.play;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Groups the FREE orbs inside a field, such as the area of the play field the AI can see, by their palette color. Each color keeps a
+ * doubly linked list of orb ids and a count, which are updated as orbs spawn, are removed or selected, change state, or cross the edge
+ * of the field, so the largest group of a color is found by looking at one count per color rather than every orb in play.
+ */
+public class OrbBuckets {
+
+	private OrbStore store;			// Store the orbs being grouped are in.
+	private OrbSnapshot snapshot;	// Snapshot the positions of the orbs are read from.
+	private float orbRadius;		// Radius of the orbs, which are in the field while any part of them overlaps it.
+
+	private Rectangle field;		// Field orbs have to be inside to be grouped, or null if every orb counts.
+	private int[] heads;			// First orb id in each colors list, or -1 if the list is empty.
+	private int[] counts;			// Number of orbs in each colors list.
+	private int[] next, prev;		// Next and previous orb ids in the same list, or -1 at either end of the list.
+	private int[] bucket;			// Color list each orb id is in, or -1 if the orb isn't grouped.
+
+	/**
+	 * Creates a new set of empty buckets.
+	 * @param store The store the orbs are in.
+	 * @param snapshot The snapshot the positions of the orbs are read from.
+	 * @param numColors Number of colors in the palette.
+	 * @param orbRadius Radius of the orbs.
+	 */
+	public OrbBuckets(OrbStore store, OrbSnapshot snapshot, int numColors, float orbRadius) {
+		this.store = store;			// Saves the store, snapshot and orb radius.
+		this.snapshot = snapshot;	//
+		this.orbRadius = orbRadius;	//
+
+		heads = new int[numColors];							// Every colors list starts empty.
+		for(int i = 0; i < numColors; i++) heads[i] = -1;	//
+		counts = new int[numColors];						//
+		ensureCapacity(32);									// Makes room for the first orbs.
+	}
+
+	/**
+	 * Sets the field orbs have to be inside to be grouped and regroups every orb in the store. The rectangle is copied.
+	 * @param field The field, or null to group every FREE orb.
+	 */
+	public void setField(Rectangle field) {
+		if(field == null) this.field = null;
+		else if(this.field == null) this.field = new Rectangle(field);
+		else this.field.set(field);
+		update();
+	}
+
+	/**
+	 * Regroups every orb in the store, moving orbs which have crossed the edge of the field in or out of their colors list. Only needed
+	 * when crossings haven't been tracked, as the snapshot regroups each orb it captures while it is given these buckets.
+	 */
+	public void update() {
+		for(int i = 0; i < store.size; i++) refresh(store.get(i));
+	}
+
+	/**
+	 * @return Whether or not a field has been set. Without one orbs can't cross its edge, so their positions don't need checking.
+	 */
+	public boolean hasField() {
+		return field != null;
+	}
+
+	/**
+	 * Groups a single orb according to its current state, color and position. Orbs which aren't in the store are let go.
+	 * @param orb The orb which has changed.
+	 */
+	public void refresh(OrbData orb) {
+		int id = orb.id;
+		ensureCapacity(id + 1);
+
+		int c = orb.getColorIndex();												// An orb is only grouped if it is a FREE orb
+		if(c < 0 || c >= heads.length || orb.getState() != OrbData.State.FREE	// of a palette color in the store
+				|| !store.contains(orb) || !inField(id)) c = -1;				// and inside the field.
+		if(bucket[id] == c) return;	// If its group hasn't changed nothing else needs to be done.
+
+		unlink(id);		// Otherwise the orb is taken out of its old list
+		if(c < 0) return;
+		next[id] = heads[c];						// and pushed onto the front of the new one.
+		prev[id] = -1;								//
+		if(heads[c] >= 0) prev[heads[c]] = id;		//
+		heads[c] = id;								//
+		bucket[id] = c;								//
+		counts[c]++;								//
+	}
+
+	/**
+	 * Stops grouping an orb. Does nothing if the orb isn't grouped.
+	 * @param orb The orb being removed.
+	 */
+	public void remove(OrbData orb) {
+		if(orb.id < bucket.length) unlink(orb.id);
+	}
+
+	/**
+	 * @param color Index of the color in the palette.
+	 * @return Number of orbs grouped under the color.
+	 */
+	public int getCount(int color) {
+		return counts[color];
+	}
+
+	/**
+	 * @return Index of the color with the most orbs grouped under it, or -1 if no orbs are grouped. Ties go to the lowest index.
+	 */
+	public int getLargest() {
+		int largest = -1;
+		for(int c = 0; c < counts.length; c++)
+			if(counts[c] > 0 && (largest < 0 || counts[c] > counts[largest])) largest = c;
+		return largest;
+	}
+
+	/**
+	 * Copies every orb grouped under a color into an array.
+	 * @param color Index of the color in the palette.
+	 * @param out Array filled with the orbs. It is cleared first.
+	 * @return Reference to the array which was filled.
+	 */
+	public Array<OrbData> get(int color, Array<OrbData> out) {
+		out.clear();
+		for(int id = heads[color]; id >= 0; id = next[id]) out.add(store.lookup(id));
+		return out;
+	}
+
+	/**
+	 * @return Whether or not the orb with the given id overlaps the field according to the snapshot.
+	 */
+	private boolean inField(int id) {
+		if(field == null) return true;
+		float x = snapshot.x[id], y = snapshot.y[id];
+		return x >= field.x - orbRadius && x <= field.x + field.width + orbRadius
+				&& y >= field.y - orbRadius && y <= field.y + field.height + orbRadius;
+	}
+
+	/**
+	 * Takes the given orb id out of the list it is in, if any.
+	 * @param id The id of the orb being unlinked.
+	 */
+	private void unlink(int id) {
+		int c = bucket[id];
+		if(c < 0) return;	// Orbs which aren't in a list don't need unlinking.
+
+		if(prev[id] >= 0) next[prev[id]] = next[id];	// The orbs either side of this one are linked together,
+		else heads[c] = next[id];						// or the list starts from the next orb if this one was first.
+		if(next[id] >= 0) prev[next[id]] = prev[id];	//
+		counts[c]--;									// The color has one less orb
+		bucket[id] = -1;								// and the orb is marked as not grouped.
+	}
+
+	/**
+	 * Grows the per orb arrays so that they can hold at least the given number of ids.
+	 * @param capacity Number of ids the arrays need to hold.
+	 */
+	private void ensureCapacity(int capacity) {
+		if(bucket != null && bucket.length >= capacity) return;	// Nothing is done if there is already enough room.
+
+		int length = Math.max(capacity, bucket == null ? 0 : bucket.length * 2);	// The arrays at least double in size
+		int old = bucket == null ? 0 : bucket.length;								// and keep everything recorded so far.
+		next = copyOf(next, length);		//
+		prev = copyOf(prev, length);		//
+		bucket = copyOf(bucket, length);	//
+		for(int i = old; i < length; i++) bucket[i] = -1;	// New ids start ungrouped.
+	}
+
+	private static int[] copyOf(int[] array, int length) {
+		int[] newArray = new int[length];
+		if(array != null) System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+}
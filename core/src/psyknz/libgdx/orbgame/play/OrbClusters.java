@@ -0,0 +1,243 @@
+package psyknz.libgdx.orbgame.play;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.physics.box2d.JointEdge;
+
+/**
+ * Tracks which orbs are joined together using a union-find over orb ids. Joining two orbs merges their clusters straight away, so
+ * asking whether an orb is connected to the magnet or how many orbs of a color are in its cluster costs almost nothing. Union-find
+ * can't split a cluster, so when a joint is broken the cluster it was in is rebuilt by walking the joint edges of its orbs' bodies.
+ * Only that one cluster is visited, rather than every orb and joint in the world.
+ */
+public class OrbClusters {
+
+	private OrbStore store;		// Store the orbs being tracked are registered with.
+	private int numColors;		// Number of colors orbs can be.
+	private OrbData magnet;		// Reference to the magnet, if it has been created.
+
+	private int[] parent;		// Parent of each orb id. Ids which are their own parent are the root of their cluster.
+	private int[] size;			// Number of orbs in the cluster each root id represents.
+	private int[] colors;		// Number of orbs of each color in the cluster each root id represents, numColors per id.
+	private int capacity;		// Number of ids the arrays above can hold.
+
+	private int[] found;		// Ids found while walking a cluster whose joint has been broken.
+	private int numFound;		// Number of ids in the found array.
+	private int[] visited;		// Walk each id was last found in, so that no id has to be unmarked between walks.
+	private int walk;			// Number of the current walk.
+
+	/**
+	 * Creates a new tracker for the orbs registered with the given store.
+	 * @param store The store the orbs are registered with.
+	 * @param numColors Number of colors in the palette orbs are colored from.
+	 */
+	public OrbClusters(OrbStore store, int numColors) {
+		this.store = store;			// Saves a reference to the store
+		this.numColors = numColors;	// and the number of colors orbs can be.
+
+		ensureCapacity(32);	// Makes room for the first orbs.
+	}
+
+	/**
+	 * Sets the orb every cluster is compared to when checking for a connection to the magnet.
+	 * @param magnet The magnet at the centre of play.
+	 */
+	public void setMagnet(OrbData magnet) {
+		this.magnet = magnet;
+	}
+
+	/**
+	 * Starts tracking an orb on its own, as a newly created or recycled orb has no joints. Breaking the last joint of a recycled orb
+	 * has already left it in a cluster of its own, so it only needs its new color recorded.
+	 * @param orb The orb entering play.
+	 */
+	public void add(OrbData orb) {
+		ensureCapacity(orb.id + 1);
+		reset(orb.id, orb);
+	}
+
+	/**
+	 * Records that two orbs have been joined, merging their clusters.
+	 * @param a The first orb in the joint.
+	 * @param b The second orb in the joint.
+	 */
+	public void union(OrbData a, OrbData b) {
+		ensureCapacity(Math.max(a.id, b.id) + 1);
+		merge(a.id, b.id);
+	}
+
+	/**
+	 * Records that the joint between two orbs has been broken. Should be called once the joint has been destroyed. The orbs still
+	 * joined to the first orb are found by walking the joint edges of their bodies, and if the second orb is among them the cluster
+	 * is still whole and nothing changes. Otherwise the orbs joined to the second orb are found the same way and both halves are
+	 * rebuilt from their joints, so a broken joint costs as much as the cluster it was in.
+	 * @param a The first orb in the joint.
+	 * @param b The second orb in the joint.
+	 */
+	public void split(OrbData a, OrbData b) {
+		ensureCapacity(Math.max(a.id, b.id) + 1);
+		walk++;											// Starts a new walk
+		numFound = 0;									// with nothing found yet.
+		if(collect(a, b.id)) return;					// The cluster is still whole if the second orb can be reached.
+		collect(b, -1);									// Otherwise the second orb's half is found as well.
+
+		for(int i = 0; i < numFound; i++) reset(found[i], store.lookup(found[i]));	// Every orb in either half starts on its own
+		for(int i = 0; i < numFound; i++) {											// and is merged with every orb it is
+			Array<JointEdge> edges = store.lookup(found[i]).body.getJointList();	// still joined to.
+			for(int j = 0; j < edges.size; j++) merge(found[i], ((OrbData) edges.get(j).other.getUserData()).id);
+		}
+	}
+
+	/**
+	 * Puts every orb back into a cluster of its own. Should be called once every joint has been broken.
+	 */
+	public void clear() {
+		int numIds = store.getNumIds();
+		ensureCapacity(numIds);
+		for(int id = 0; id < numIds; id++) reset(id, store.lookup(id));
+	}
+
+	/**
+	 * @param a The first orb.
+	 * @param b The second orb.
+	 * @return Whether or not the two orbs are in the same cluster.
+	 */
+	public boolean isConnected(OrbData a, OrbData b) {
+		return find(a.id) == find(b.id);
+	}
+
+	/**
+	 * @param orb The orb being checked.
+	 * @return Whether or not the orb is joined to the magnet, either directly or through other orbs.
+	 */
+	public boolean isConnectedToMagnet(OrbData orb) {
+		if(magnet == null) return false;
+		return isConnected(orb, magnet);
+	}
+
+	/**
+	 * @param orb An orb in the cluster.
+	 * @return Number of orbs in the cluster, including the given orb.
+	 */
+	public int getClusterSize(OrbData orb) {
+		return size[find(orb.id)];
+	}
+
+	/**
+	 * @param orb An orb in the cluster.
+	 * @param colorIndex Index of the color in the palette.
+	 * @return Number of orbs of the given color in the cluster.
+	 */
+	public int getColorCount(OrbData orb, int colorIndex) {
+		if(colorIndex < 0 || colorIndex >= numColors) return 0;
+		return colors[find(orb.id) * numColors + colorIndex];
+	}
+
+	/**
+	 * @return Number of orbs settled onto the magnet, not including the magnet itself.
+	 */
+	public int getMagnetClusterSize() {
+		if(magnet == null) return 0;
+		return getClusterSize(magnet) - 1;
+	}
+
+	/**
+	 * @param colorIndex Index of the color in the palette.
+	 * @return Number of orbs of the given color settled onto the magnet.
+	 */
+	public int getMagnetColorCount(int colorIndex) {
+		if(magnet == null) return 0;
+		return getColorCount(magnet, colorIndex);
+	}
+
+	/**
+	 * Adds every orb joined to the given orb, directly or through other orbs, to the found ids by walking the joint edges of their
+	 * bodies. Orbs already found during the current walk aren't visited again.
+	 * @param orb The orb the walk starts from.
+	 * @param target Id which ends the walk early once it is found, or -1 to find every joined orb.
+	 * @return Whether or not the target was found.
+	 */
+	private boolean collect(OrbData orb, int target) {
+		int first = numFound;				// Orbs found from here onwards are yet to be walked from.
+		visited[orb.id] = walk;				// The starting orb is marked as found
+		found[numFound++] = orb.id;			//
+		while(first < numFound) {									// and every found orb is walked from in turn.
+			Array<JointEdge> edges = store.lookup(found[first++]).body.getJointList();
+			for(int j = 0; j < edges.size; j++) {					// The orb at the other end of each of its joints
+				int id = ((OrbData) edges.get(j).other.getUserData()).id;
+				if(id == target) return true;						// either ends the walk,
+				if(visited[id] == walk) continue;					//
+				visited[id] = walk;									// or is found if it hasn't been already.
+				found[numFound++] = id;								//
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Makes the given id a cluster of one containing the given orb.
+	 * @param id The id being reset.
+	 * @param orb The orb registered under that id.
+	 */
+	private void reset(int id, OrbData orb) {
+		parent[id] = id;
+		size[id] = 1;
+		for(int c = 0; c < numColors; c++) colors[id * numColors + c] = 0;
+		int colorIndex = orb == null ? -1 : orb.getColorIndex();
+		if(colorIndex >= 0 && colorIndex < numColors) colors[id * numColors + colorIndex] = 1;
+	}
+
+	/**
+	 * Merges the clusters containing the two ids, attaching the smaller cluster to the larger.
+	 * @param a The first id.
+	 * @param b The second id.
+	 */
+	private void merge(int a, int b) {
+		int ra = find(a), rb = find(b);
+		if(ra == rb) return;										// Ids already in the same cluster need no merging.
+		if(size[ra] < size[rb]) { int t = ra; ra = rb; rb = t; }	// The smaller cluster is attached under the larger one,
+
+		parent[rb] = ra;											// which takes on the size
+		size[ra] += size[rb];										// and color counts of both.
+		for(int c = 0; c < numColors; c++) colors[ra * numColors + c] += colors[rb * numColors + c];
+	}
+
+	/**
+	 * Finds the root of the cluster containing the given id, halving the path to the root along the way.
+	 * @param id The id being looked up.
+	 * @return Id at the root of its cluster.
+	 */
+	private int find(int id) {
+		while(parent[id] != id) {
+			parent[id] = parent[parent[id]];
+			id = parent[id];
+		}
+		return id;
+	}
+
+	/**
+	 * Grows the per orb arrays so that they can hold at least the given number of ids. New ids start in a cluster of their own.
+	 * @param required Number of ids the arrays need to hold.
+	 */
+	private void ensureCapacity(int required) {
+		if(required <= capacity) return;	// Nothing is done if there is already enough room.
+
+		int length = Math.max(required, capacity * 2);	// The arrays at least double in size
+		int[] newParent = new int[length];				// and keep everything recorded so far.
+		int[] newSize = new int[length];				//
+		int[] newColors = new int[length * numColors];	//
+		int[] newVisited = new int[length];				//
+		if(parent != null) {
+			System.arraycopy(parent, 0, newParent, 0, capacity);
+			System.arraycopy(size, 0, newSize, 0, capacity);
+			System.arraycopy(colors, 0, newColors, 0, capacity * numColors);
+			System.arraycopy(visited, 0, newVisited, 0, capacity);
+		}
+		parent = newParent;
+		size = newSize;
+		colors = newColors;
+		visited = newVisited;
+		found = new int[length];	// Found ids are only kept during a walk.
+		for(int id = capacity; id < length; id++) reset(id, id < store.getNumIds() ? store.lookup(id) : null);
+		capacity = length;
+	}
+}
@@ -0,0 +1,136 @@
+package psyknz.libgdx.orbgame.play;
+
+import psyknz.libgdx.orbgame.layers.OrbLayer;
+
+/**
+ * Ring buffer of commands raised while box2d is stepping the world. The world can't be changed from inside a contact callback, so
+ * the collision processor queues what should happen and the layer executes it once the step has finished. Commands are stored as
+ * plain ints holding the command type and the ids of the orbs involved, so raising one creates no garbage however many contacts
+ * there are.
+ */
+public class OrbCommands {
+
+	public static final int CREATE_JOINT = 0;	// Joins orbs a and b together.
+	public static final int SELECT_ORB = 1;		// Adds orb a to the player's chain.
+	public static final int END_GAME = 2;		// Ends the current game.
+
+	private static final int COMMAND_SIZE = 3;	// Number of ints each command takes up: its type and two orb ids.
+
+	private OrbLayer layer;	// Reference to the layer the commands are executed on.
+
+	private int[] buffer;	// Commands waiting to be executed, COMMAND_SIZE ints each.
+	private int head;		// Index in the buffer of the next command to execute.
+	private int size;		// Number of commands waiting to be executed.
+
+	/**
+	 * Creates a new empty command buffer for the given layer.
+	 * @param layer The layer the commands are executed on.
+	 */
+	public OrbCommands(OrbLayer layer) {
+		this.layer = layer;
+		buffer = new int[64 * COMMAND_SIZE];	// Preallocates room for more commands than are normally raised in a step.
+	}
+
+	/**
+	 * Queues joining two orbs together.
+	 * @param a The first orb to join.
+	 * @param b The second orb to join.
+	 */
+	public void createJoint(OrbData a, OrbData b) {
+		push(CREATE_JOINT, a.id, b.id);
+	}
+
+	/**
+	 * Queues selecting an orb for the player's chain.
+	 * @param orb The orb being selected.
+	 */
+	public void selectOrb(OrbData orb) {
+		push(SELECT_ORB, orb.id, -1);
+	}
+
+	/**
+	 * Queues ending the current game.
+	 */
+	public void endGame() {
+		push(END_GAME, -1, -1);
+	}
+
+	/**
+	 * Executes every queued command in the order they were raised. Commands raised while executing are also executed. Commands which
+	 * no longer make sense, such as joining an orb which has since been selected or returned to the pool, are dropped.
+	 */
+	public void execute() {
+		while(size > 0) {
+			int type = buffer[head];								// Reads the command at the front of the buffer
+			OrbData a = layer.orbs.lookup(buffer[head + 1]);		// and the orbs it involves
+			OrbData b = layer.orbs.lookup(buffer[head + 2]);		//
+			head = (head + COMMAND_SIZE) % buffer.length;			// before removing it, so that the command can queue others.
+			size--;													//
+
+			switch(type) {
+			case CREATE_JOINT:
+				if(canJoin(a) && canJoin(b)) layer.joints.connect(a, b);	// Orbs are joined if both are still settling.
+				break;
+			case SELECT_ORB:
+				if(a.getState() == OrbData.State.FREE && layer.orbs.contains(a)) layer.selectOrb(a);	// Orbs can only be selected once.
+				break;
+			case END_GAME:
+				layer.endGame();
+				break;
+			}
+		}
+		head = 0;	// With the buffer empty the next command can start from the beginning.
+	}
+
+	/**
+	 * Throws away every queued command without executing it.
+	 */
+	public void clear() {
+		head = 0;
+		size = 0;
+	}
+
+	/**
+	 * @return Number of commands waiting to be executed.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @param orb The orb being joined.
+	 * @return Whether or not the orb is still in a state where it can be joined to others.
+	 */
+	private boolean canJoin(OrbData orb) {
+		if(orb.getState() == OrbData.State.MAGNET) return true;
+		return orb.getState() == OrbData.State.FREE && layer.orbs.contains(orb);
+	}
+
+	/**
+	 * Adds a command to the back of the buffer, growing the buffer if it is full.
+	 * @param type Type of the command.
+	 * @param a Id of the first orb involved, or -1.
+	 * @param b Id of the second orb involved, or -1.
+	 */
+	private void push(int type, int a, int b) {
+		if(size * COMMAND_SIZE >= buffer.length) grow();	// Commands are never dropped, the buffer doubles in size if needed.
+
+		int tail = (head + size * COMMAND_SIZE) % buffer.length;	// Finds the first free space after the queued commands
+		buffer[tail] = type;										// and writes the command into it.
+		buffer[tail + 1] = a;										//
+		buffer[tail + 2] = b;										//
+		size++;														//
+	}
+
+	/**
+	 * Doubles the size of the buffer, unwrapping the queued commands so that they start from the beginning.
+	 */
+	private void grow() {
+		int[] newBuffer = new int[buffer.length * 2];
+		int first = Math.min(size * COMMAND_SIZE, buffer.length - head);			// Copies the commands up to the end of the buffer
+		System.arraycopy(buffer, head, newBuffer, 0, first);					// followed by any which had wrapped around to the
+		System.arraycopy(buffer, 0, newBuffer, first, size * COMMAND_SIZE - first);	// start of the buffer.
+		buffer = newBuffer;
+		head = 0;
+	}
+}
@@ -27,14 +27,20 @@ public class OrbData {
 	
 	public final OrbLayer layer;	// Reference to the layer managing this orb data.
 	public final Body body;			// Reference to the body this is orb data for.
-	private Sprite sprite; 			// Reference to the sprite to use when drawing this orb.
+	public final int id;			// Stable id given to this orb by the layers orb store.
+	int slot = -1;					// Slot this orb occupies in the layers orb store, or -1 if it isn't in the store.
+	boolean frozen;					// Whether or not this orb has been frozen by putting its body to sleep.
+	private Sprite base;			// Reference to the shared sprite this orb is drawn like.
+	private Sprite sprite; 			// Sprite of this orbs own, used when it needs to be drawn unlike the shared sprite.
+	private boolean hasSprite;		// Whether or not this orb is currently drawn using its own sprite.
 	private Circle bounds; 			// Circle representing the orbs bounding box.
 	private Color color;			// Reference to the color that this orb is.
+	private int colorIndex;			// Index of this orbs color in the palette, or -1 if it isn't a palette color.
 	
 	private State state;			// Current state of the orb.
 	public boolean inPlay = false;	// Whether or not the orb has entered the 'play area'.
 	
-	private Vector2 force, target; // Temporary variables used to process forces applied to the orb.
+	private float targetX, targetY;	// Point the orb moves towards while FREE, or falls past while in the GAME_OVER state.
 	
 	/**
 	 * 
@@ -44,42 +50,79 @@ public class OrbData {
 	 * @param state
 	 */
 	public OrbData(OrbLayer layer, Body body, Sprite sprite, Color color, State state) {
+		this(layer, body, sprite, color, -1, state);
+	}
+	
+	/**
+	 * 
+	 * @param layer
+	 * @param body
+	 * @param sprite
+	 * @param color
+	 * @param colorIndex Index of the color in the palette, or -1 if it isn't a palette color.
+	 * @param state
+	 */
+	public OrbData(OrbLayer layer, Body body, Sprite sprite, Color color, int colorIndex, State state) {
 		this.layer = layer;					// Saves references to all details passed in the data's constructor.
 		this.body = body; 					//
-		this.sprite = new Sprite(sprite);	//
-		this.sprite.setColor(color);		//
+		this.id = layer.orbs.register(this);	// Registers the orb with the layer to get its id.
+		this.base = sprite;					//
 		this.color = color;					//
+		this.colorIndex = colorIndex;		//
 		setState(state);					//
 		this.body.setUserData(this);		//
 			
 		bounds = new Circle(0, 0,										// Creates a bounding circle for this orb the same size as
 				body.getFixtureList().first().getShape().getRadius());	// the box2d circle used for its orb.
 		
-		force = new Vector2();	// Instantiates a blank Vector2 which will be used to process motion.
+		layer.snapshot.reset(this);	// The orb is recorded in the snapshot with no previous motion to interpolate from.
+		update(1); 					// Does an initial blank update to synchronise the bounding box and sprite with the box2d body.
+	}
+	
+	/**
+	 * Resets a recycled orb so that it matches a newly created orb of the given color. The body should already have been moved to
+	 * where the orb is being placed.
+	 * @param color Color the orb should be.
+	 * @param colorIndex Index of the color in the palette.
+	 * @param state The state the orb should start in.
+	 */
+	public void reset(Color color, int colorIndex, State state) {
+		this.color = color;										// The orb takes on its new color,
+		this.colorIndex = colorIndex;							//
+		hasSprite = false;										// is drawn like every other orb,
+		inPlay = false;											// starts outside of the play area,
+		setState(state);										// and takes on its new state.
 		
-		update(0); // Does an initial blank update to synchronise the bounding box and sprite with the box2d body.
+		layer.snapshot.reset(this);	// The orb has no previous motion to interpolate from.
+		update(1);					// Synchronises the bounding box and sprite with the box2d body.
 	}
 	
 	/**
-	 * Applies motion and updates the position of the orb, its bounding box, and the sprite.
-	 * @param delta Time in ms since the last update call.
+	 * Prepares the orb for a single fixed physics step. Applies any forces which need to act on it throughout the step, since box2d
+	 * clears forces after every step.
 	 */
-	public void update(float delta) {
-		if(state == State.FREE) {						// If this orb is currently in FREE motion.
-			force.set(target.x - body.getPosition().x, 	// The force to be applied to it is updated as the difference between
-					target.y - body.getPosition().y)	// the position of the orb, and it target.
-					.clamp(FREE_SPEED, FREE_SPEED);		//
-			body.setLinearVelocity(force);				// The force is applied as a linear velocity.
-		}
+	public void step() {
+		if(state == State.GAME_OVER) body.applyForceToCenter(0, 0 - GRAVITY, true);	// Orbs falling off screen have gravity applied.
+	}
+	
+	/**
+	 * Updates the position of the orb, its bounding box, and its own sprite if it has one. The sprite is drawn between the positions
+	 * of the body before and after the last physics step so that motion is smooth regardless of the frame rate. Positions are read
+	 * from the layers snapshot rather than the body. FREE orbs are steered towards their target by the layers attraction stage.
+	 * @param alpha Fraction of a physics step that has passed since the last step was simulated, between 0 and 1.
+	 */
+	public void update(float alpha) {
+		OrbSnapshot s = layer.snapshot;	// Where the orb is according to the most recent snapshot.
+		float x = s.x[id], y = s.y[id];	//
 		
-		else if(state == State.GAME_OVER) {					// If this orb is currently in the game over state
-			body.applyForceToCenter(0, 0 - GRAVITY, true);	// a force representing gravity is applied to its center.
-			if(body.getPosition().y < target.y) 			// The body is checked to see if it has passed its off-screen target.
-				layer.removeOrb(this);						// If it has, it is removed from the simulation.
+		if(state == State.GAME_OVER) {	// If this orb is currently in the game over state
+			if(y < targetY) 			// the orb is checked to see if it has passed its off-screen target.
+				layer.removeOrb(this);	// If it has, it is removed from the simulation.
 		}
 		
-		bounds.setPosition(body.getPosition());	// Matches the location of the orbs bounding box to its physics body.
-		sprite.setCenter(bounds.x, bounds.y);	// Matches the location of the orbs sprite to its physics body.
+		bounds.setPosition(x, y);										// Matches the location of the orbs bounding box to its physics body.
+		if(hasSprite) sprite.setCenter(s.prevX[id] + (x - s.prevX[id]) * alpha, 		// The sprite is placed between where the body was before the
+				s.prevY[id] + (y - s.prevY[id]) * alpha);				// last step and where it is now.
 	}
 	
 	/**
@@ -87,18 +130,31 @@ public class OrbData {
 	 * @param state The state this orb should be set to.
 	 */
 	public void setState(State state) {
-		setState(state, new Vector2(0, 0));
+		setState(state, 0, 0);
 	}
 	
 	/**
 	 * Sets the state of the orb and the target it should move towards.
 	 * @param state The state this orb should be set to.
-	 * @param target Two dimensional vector this orb will use as a target while in FREE motion.
+	 * @param target Two dimensional vector this orb will use as a target while in FREE motion. Only its co-ordinates are kept.
 	 */
 	public void setState(State state, Vector2 target) {
+		setState(state, target.x, target.y);
+	}
+	
+	/**
+	 * Sets the state of the orb and the target it should move towards.
+	 * @param state The state this orb should be set to.
+	 * @param x X co-ordinate of the target this orb will use while in FREE motion.
+	 * @param y Y co-ordinate of the target this orb will use while in FREE motion.
+	 */
+	public void setState(State state, float x, float y) {
 		this.state = state;
-		this.target = target;
+		targetX = x;
+		targetY = y;
 		if(state == State.GAME_OVER) body.setLinearVelocity(0, 0);	// If set to a game over state, all its existing motion is cleared.
+		layer.snapshot.setState(this, x, y);						// The snapshot is kept up to date with the new state,
+		layer.buckets.refresh(this);								// as are the color groups.
 	}
 	
 	/**
@@ -106,9 +162,19 @@ public class OrbData {
 	 * @param v Vector representing the position the orb should be placed at.
 	 */
 	public void setPosition(Vector2 v) {
-		body.setTransform(v, body.getAngle());	// Manually sets the position of the physics body.
-		bounds.setPosition(body.getPosition());	// Matches the location of the orbs bounding box to its physics body.
-		sprite.setCenter(bounds.x, bounds.y);	// Matches the location of the orbs sprite to its physics body.
+		setPosition(v.x, v.y);
+	}
+	
+	/**
+	 * Sets the position of the orb, its sprite, and bounding box.
+	 * @param x X co-ordinate the orb should be placed at.
+	 * @param y Y co-ordinate the orb should be placed at.
+	 */
+	public void setPosition(float x, float y) {
+		body.setTransform(x, y, body.getAngle());	// Manually sets the position of the physics body.
+		layer.snapshot.moveTo(this, x, y);			// The orb is moved instantly, so there is nothing to interpolate.
+		bounds.setPosition(x, y);					// Matches the location of the orbs bounding box to its physics body.
+		if(hasSprite) sprite.setCenter(x, y);		// Matches the location of the orbs sprite to its physics body.
 	}
 
 	/**
@@ -118,6 +184,13 @@ public class OrbData {
 		return state;
 	}
 	
+	/**
+	 * @return Whether or not this orb is frozen into the magnet.
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
+	
 	/**
 	 * @return Circle representing the orbs non-physics bouning box.
 	 */
@@ -126,16 +199,39 @@ public class OrbData {
 	}
 	
 	/**
+	 * Gets the orbs own sprite so that it can be drawn differently to other orbs, such as at a different size. If the orb doesn't
+	 * already have its own sprite one is created from the shared sprite, and the orb is drawn with it until it is recycled.
 	 * @return Sprite used to draw the orb to screen.
 	 */
 	public Sprite getSprite() {
+		if(!hasSprite) {								// If the orb doesn't have its own sprite
+			if(sprite == null) sprite = new Sprite(base);	// one is created, or the one it had before is reused,
+			else sprite.set(base);						// matching the shared sprite
+			sprite.setColor(color);						// in the orbs color
+			sprite.setCenter(bounds.x, bounds.y);		// and at its current position.
+			hasSprite = true;							//
+		}
 		return sprite;
 	}
 	
+	/**
+	 * @return Whether or not the orb is drawn using its own sprite rather than as part of the layers orb renderer.
+	 */
+	public boolean hasSprite() {
+		return hasSprite;
+	}
+	
 	/**
 	 * @return Color of this sprite. This is a reference to the object found on the palette.
 	 */
 	public Color getColor() {
 		return color;
 	}
+	
+	/**
+	 * @return Index of this orbs color in the palette, or -1 if it isn't a palette color.
+	 */
+	public int getColorIndex() {
+		return colorIndex;
+	}
 }
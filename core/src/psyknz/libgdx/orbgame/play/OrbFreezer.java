@@ -0,0 +1,122 @@
+package psyknz.libgdx.orbgame.play;
+
+import psyknz.libgdx.orbgame.layers.OrbLayer;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Freezes orbs which have settled onto the magnet by putting their bodies to sleep. Box2d doesn't solve the joints or contacts of a
+ * sleeping island, so the physics step only pays for orbs which are still moving, while frozen orbs keep their own bodies and joints.
+ * Anything which disturbs a frozen cluster, such as an orb landing on it or one of its joints being broken, makes box2d wake that
+ * island and nothing else. Its orbs are thawed as the snapshot finds them awake and are steered and compact as they would have done
+ * had they never been frozen.
+ */
+public class OrbFreezer {
+
+	public static final int FREEZE_INTERVAL = 30;						// Number of physics steps between looking for settled orbs.
+	public static final float SETTLE_SPEED = OrbData.FREE_SPEED / 20;	// Speed below which an orb joined to the magnet is settled.
+
+	private OrbLayer layer;			// Reference to the layer whose orbs are frozen.
+
+	private int steps;				// Number of physics steps since settled orbs were last looked for.
+	private int numFrozen;			// Number of orbs currently frozen.
+	private int frozen, thawed;		// Number of times an orb has been frozen and thawed.
+
+	private Array<OrbData> settled;	// Temporary array of orbs found to be settled.
+
+	/**
+	 * Creates a new freezer for the given layer.
+	 * @param layer The layer whose settled orbs should be frozen.
+	 */
+	public OrbFreezer(OrbLayer layer) {
+		this.layer = layer;
+		settled = new Array<OrbData>();	// Initialises the temporary array.
+	}
+
+	/**
+	 * Counts the physics steps which have been run and freezes every settled orb once enough have passed.
+	 * @param numSteps Number of physics steps run since the last update.
+	 */
+	public void update(int numSteps) {
+		steps += numSteps;
+		if(steps < FREEZE_INTERVAL) return;
+		steps = 0;
+
+		settled.clear();												// Settled orbs are all found before any are frozen.
+		for(int i = 0; i < layer.orbs.size; i++) {						// Freezing an orb doesn't change what it's connected to,
+			OrbData o = layer.orbs.get(i);								// so the clusters only need building once.
+			if(o.getState() != OrbData.State.FREE || !o.inPlay || o.isFrozen()) continue;
+			float vx = layer.snapshot.vx[o.id], vy = layer.snapshot.vy[o.id];
+			if(vx * vx + vy * vy > SETTLE_SPEED * SETTLE_SPEED) continue;
+			if(layer.clusters.isConnectedToMagnet(o)) settled.add(o);
+		}
+		for(int i = 0; i < settled.size; i++) freeze(settled.get(i));	// Every settled orb is then frozen.
+		settled.clear();
+	}
+
+	/**
+	 * Freezes an orb by putting its body to sleep. Box2d wakes it again straight away if anything it touches or is joined to is
+	 * still moving, so only whole clusters which have come to rest stay frozen.
+	 * @param orb The orb being frozen.
+	 */
+	public void freeze(OrbData orb) {
+		if(orb.isFrozen()) return;
+
+		orb.body.setAwake(false);		// The body is put to sleep, which also stops it moving,
+		orb.frozen = true;				// and the orb is no longer steered until it wakes.
+		layer.snapshot.vx[orb.id] = 0;	//
+		layer.snapshot.vy[orb.id] = 0;	//
+
+		numFrozen++;
+		frozen++;
+	}
+
+	/**
+	 * Thaws a frozen orb by waking its body.
+	 * @param orb The orb being thawed.
+	 */
+	public void thaw(OrbData orb) {
+		if(!orb.isFrozen()) return;
+		orb.body.setAwake(true);
+		woke(orb);
+	}
+
+	/**
+	 * Thaws every frozen orb.
+	 */
+	public void thawAll() {
+		for(int i = 0; i < layer.orbs.size; i++) thaw(layer.orbs.get(i));
+	}
+
+	/**
+	 * @return Number of orbs currently frozen.
+	 */
+	public int getNumFrozen() {
+		return numFrozen;
+	}
+
+	/**
+	 * @return Number of times an orb has been frozen.
+	 */
+	public int getFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * @return Number of times an orb has been thawed.
+	 */
+	public int getThawed() {
+		return thawed;
+	}
+
+	/**
+	 * Records that a frozen orb's body is awake again, either because it was thawed or because box2d woke its island.
+	 * @param orb The orb which woke.
+	 */
+	void woke(OrbData orb) {
+		orb.frozen = false;
+
+		numFrozen--;
+		thawed++;
+	}
+}
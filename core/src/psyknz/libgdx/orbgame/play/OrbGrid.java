@@ -0,0 +1,212 @@
+package psyknz.libgdx.orbgame.play;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Uniform grid spatial index over the orbs in an orb store. The infinite grid of cells is hashed into a fixed number of buckets and
+ * each bucket holds a doubly linked list of orb ids, so moving an orb between cells costs the same no matter how many orbs there are.
+ * Queries only visit the cells they overlap, making them proportional to the number of nearby orbs rather than every orb in play.
+ */
+public class OrbGrid {
+
+	public static final int NUM_BUCKETS = 1024;	// Number of buckets cells are hashed into. Must be a power of two.
+
+	private OrbStore store;		// Store the grid looks orbs up in.
+	private float cellSize;		// Width and height of each cell in in-game units.
+	private float orbRadius;	// Radius of the orbs in the grid, used to test whether they overlap a query.
+
+	private int[] buckets;				// First orb id in each bucket, or -1 if the bucket is empty.
+	private int[] next, prev;			// Next and previous orb ids in the same bucket, or -1 at either end of the list.
+	private int[] bucket;				// Bucket each orb id is in, or -1 if the orb isn't in the grid.
+	private int[] cellX, cellY;			// Cell each orb id is in.
+	private float[] x, y;				// Position each orb id had when it was last placed in the grid.
+
+	/**
+	 * Creates a new empty grid.
+	 * @param store The store the orbs placed in the grid are registered with.
+	 * @param cellSize Width and height of each cell. Should be about the size of an orb.
+	 * @param orbRadius Radius of the orbs placed in the grid.
+	 */
+	public OrbGrid(OrbStore store, float cellSize, float orbRadius) {
+		this.store = store;			// Saves the store, cell size and orb radius.
+		this.cellSize = cellSize;	//
+		this.orbRadius = orbRadius;	//
+
+		buckets = new int[NUM_BUCKETS];					// Every bucket starts empty.
+		for(int i = 0; i < NUM_BUCKETS; i++) buckets[i] = -1;	//
+		ensureCapacity(32);								// Makes room for the first orbs.
+	}
+
+	/**
+	 * Places an orb in the grid at the given position, or moves it there if it's already in the grid.
+	 * @param orb The orb being placed.
+	 * @param px X co-ordinate of the orb.
+	 * @param py Y co-ordinate of the orb.
+	 */
+	public void insert(OrbData orb, float px, float py) {
+		int id = orb.id;
+		ensureCapacity(id + 1);	// Makes sure there is room to record the orb.
+
+		x[id] = px;	// Records where the orb is.
+		y[id] = py;	//
+
+		int cx = MathUtils.floor(px / cellSize);								// Finds the cell the orb is in.
+		int cy = MathUtils.floor(py / cellSize);								//
+		if(bucket[id] >= 0 && cellX[id] == cx && cellY[id] == cy) return;	// If it hasn't changed cell nothing else needs to be done.
+
+		unlink(id);		// Otherwise the orb is taken out of its old cell
+		cellX[id] = cx;	// and placed into the new one.
+		cellY[id] = cy;	//
+		int b = hash(cx, cy);			// The orb is pushed onto the front of its bucket's list.
+		next[id] = buckets[b];			//
+		prev[id] = -1;					//
+		if(buckets[b] >= 0) prev[buckets[b]] = id;	//
+		buckets[b] = id;				//
+		bucket[id] = b;					//
+	}
+
+	/**
+	 * Removes an orb from the grid. Does nothing if the orb isn't in the grid.
+	 * @param orb The orb being removed.
+	 */
+	public void remove(OrbData orb) {
+		if(orb.id < bucket.length) unlink(orb.id);
+	}
+
+	/**
+	 * Moves every orb in the store to the cell matching its position in the given snapshot. Only orbs which have changed cell are
+	 * relinked.
+	 * @param snapshot Snapshot holding the positions of the orbs.
+	 */
+	public void update(OrbSnapshot snapshot) {
+		for(int i = 0; i < store.size; i++) {					// For every orb in the store
+			OrbData o = store.get(i);							// its position is read from the snapshot
+			insert(o, snapshot.x[o.id], snapshot.y[o.id]);		// and the orb is moved to the matching cell.
+		}
+	}
+
+	/**
+	 * Finds all orbs containing the given point.
+	 * @param px X co-ordinate of the point.
+	 * @param py Y co-ordinate of the point.
+	 * @param out Array filled with the orbs found. It is cleared first.
+	 * @return Reference to the array which was filled.
+	 */
+	public Array<OrbData> queryPoint(float px, float py, Array<OrbData> out) {
+		return queryRadius(px, py, 0, out);
+	}
+
+	/**
+	 * Finds all orbs overlapping the given circle.
+	 * @param px X co-ordinate of the circle's centre.
+	 * @param py Y co-ordinate of the circle's centre.
+	 * @param radius Radius of the circle.
+	 * @param out Array filled with the orbs found. It is cleared first.
+	 * @return Reference to the array which was filled.
+	 */
+	public Array<OrbData> queryRadius(float px, float py, float radius, Array<OrbData> out) {
+		out.clear();
+
+		float reach = radius + orbRadius;						// Orbs are found if their centre is within reach of the point.
+		int minX = MathUtils.floor((px - reach) / cellSize);	// Finds the range of cells which could hold those orbs.
+		int maxX = MathUtils.floor((px + reach) / cellSize);	//
+		int minY = MathUtils.floor((py - reach) / cellSize);	//
+		int maxY = MathUtils.floor((py + reach) / cellSize);	//
+
+		float dx, dy;
+		for(int cx = minX; cx <= maxX; cx++) {								// Every cell in range is visited
+			for(int cy = minY; cy <= maxY; cy++) {							// and every orb in its bucket
+				for(int id = buckets[hash(cx, cy)]; id >= 0; id = next[id]) {	// which is actually in that cell
+					if(cellX[id] != cx || cellY[id] != cy) continue;		// and within reach is added to the results.
+					dx = x[id] - px;										//
+					dy = y[id] - py;										//
+					if(dx * dx + dy * dy <= reach * reach) out.add(store.lookup(id));
+				}
+			}
+		}
+		return out;
+	}
+
+	/**
+	 * Finds all orbs whose bounds overlap the given rectangle.
+	 * @param rect The rectangle to search.
+	 * @param out Array filled with the orbs found. It is cleared first.
+	 * @return Reference to the array which was filled.
+	 */
+	public Array<OrbData> queryRect(Rectangle rect, Array<OrbData> out) {
+		out.clear();
+
+		float left = rect.x - orbRadius, right = rect.x + rect.width + orbRadius;	// Orbs are found if their centre is inside the
+		float bottom = rect.y - orbRadius, top = rect.y + rect.height + orbRadius;	// rectangle grown by the radius of an orb.
+		int minX = MathUtils.floor(left / cellSize);	// Finds the range of cells which could hold those orbs.
+		int maxX = MathUtils.floor(right / cellSize);	//
+		int minY = MathUtils.floor(bottom / cellSize);	//
+		int maxY = MathUtils.floor(top / cellSize);		//
+
+		for(int cx = minX; cx <= maxX; cx++) {								// Every cell in range is visited
+			for(int cy = minY; cy <= maxY; cy++) {							// and every orb in its bucket
+				for(int id = buckets[hash(cx, cy)]; id >= 0; id = next[id]) {	// which is actually in that cell
+					if(cellX[id] != cx || cellY[id] != cy) continue;		// and inside the grown rectangle is added to the results.
+					if(x[id] >= left && x[id] <= right && y[id] >= bottom && y[id] <= top) out.add(store.lookup(id));
+				}
+			}
+		}
+		return out;
+	}
+
+	/**
+	 * Takes the given orb id out of the bucket it is in, if any.
+	 * @param id The id of the orb being unlinked.
+	 */
+	private void unlink(int id) {
+		if(bucket[id] < 0) return;	// Orbs which aren't in a bucket don't need unlinking.
+
+		if(prev[id] >= 0) next[prev[id]] = next[id];	// The orbs either side of this one are linked together,
+		else buckets[bucket[id]] = next[id];			// or the bucket starts from the next orb if this one was first.
+		if(next[id] >= 0) prev[next[id]] = prev[id];	//
+		bucket[id] = -1;								// The orb is then marked as not in the grid.
+	}
+
+	/**
+	 * Hashes the given cell to one of the grid's buckets.
+	 * @param cx X index of the cell.
+	 * @param cy Y index of the cell.
+	 * @return Index of the bucket the cell belongs to.
+	 */
+	private static int hash(int cx, int cy) {
+		return (cx * 73856093 ^ cy * 19349663) & (NUM_BUCKETS - 1);
+	}
+
+	/**
+	 * Grows the per orb arrays so that they can hold at least the given number of ids.
+	 * @param capacity Number of ids the arrays need to hold.
+	 */
+	private void ensureCapacity(int capacity) {
+		if(bucket != null && bucket.length >= capacity) return;	// Nothing is done if there is already enough room.
+
+		int length = Math.max(capacity, bucket == null ? 0 : bucket.length * 2);	// The arrays at least double in size
+		int old = bucket == null ? 0 : bucket.length;								// and keep everything recorded so far.
+		next = copyOf(next, length);		//
+		prev = copyOf(prev, length);		//
+		bucket = copyOf(bucket, length);	//
+		cellX = copyOf(cellX, length);		//
+		cellY = copyOf(cellY, length);		//
+		x = copyOf(x, length);				//
+		y = copyOf(y, length);				//
+		for(int i = old; i < length; i++) bucket[i] = -1;	// New ids start outside of the grid.
+	}
+
+	private static int[] copyOf(int[] array, int length) {
+		int[] newArray = new int[length];
+		if(array != null) System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+
+	private static float[] copyOf(float[] array, int length) {
+		float[] newArray = new float[length];
+		if(array != null) System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+}
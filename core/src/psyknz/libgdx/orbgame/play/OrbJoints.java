@@ -0,0 +1,140 @@
+package psyknz.libgdx.orbgame.play;
+
+import psyknz.libgdx.orbgame.layers.OrbLayer;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.Joint;
+import com.badlogic.gdx.physics.box2d.JointEdge;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.physics.box2d.joints.DistanceJointDef;
+
+/**
+ * Creates and breaks the joints holding orbs together. Joints attached to a single orb are found by walking the joint edges of its
+ * body, so detaching an orb only costs as much as the number of joints it has rather than every joint in the world. Every pair of
+ * joined orbs is recorded so that the same two orbs are never joined twice.
+ */
+public class OrbJoints {
+
+	private World world;				// Reference to the box2d simulation the joints are in.
+	private OrbClusters clusters;		// Tracker told whenever orbs are joined or separated.
+	private OrbPairSet pairs;			// Ids of every pair of orbs currently joined.
+	private int rejected;				// Number of joints which weren't created because the orbs were already joined.
+	private DistanceJointDef jointDef;	// Joint definition reused to create every joint.
+	private Array<Joint> joints;		// Temporary array used when every joint in the world needs to be broken.
+
+	/**
+	 * Creates a new manager for the joints between orbs in the given world.
+	 * @param world The box2d simulation the orbs are in.
+	 * @param clusters Tracker for the clusters the joints form.
+	 */
+	public OrbJoints(World world, OrbClusters clusters) {
+		this.world = world;
+		this.clusters = clusters;
+
+		jointDef = new DistanceJointDef();	// Creates the definition used to join orbs together.
+		joints = new Array<Joint>();		// Initialises the array used to break every joint
+		pairs = new OrbPairSet();			// and the set of joined pairs.
+	}
+
+	/**
+	 * Checks whether a joint between two orbs is worth queueing. Orbs which are already joined are rejected and counted.
+	 * @param a The first orb.
+	 * @param b The second orb.
+	 * @return true if the orbs aren't yet joined.
+	 */
+	public boolean accept(OrbData a, OrbData b) {
+		if(!pairs.contains(a.id, b.id)) return true;
+		rejected++;
+		return false;
+	}
+
+	/**
+	 * Joins two orbs together with a joint the length of an orb, unless they're already joined.
+	 * @param a The first orb to join.
+	 * @param b The second orb to join.
+	 * @return The joint which was created, or null if the orbs were already joined.
+	 */
+	public Joint connect(OrbData a, OrbData b) {
+		if(!pairs.add(a.id, b.id)) {	// The pair is recorded as joined,
+			rejected++;					// unless it already was in which case no joint is needed.
+			return null;				//
+		}
+
+		Body bodyA = a.body, bodyB = b.body;
+		jointDef.initialize(bodyA, bodyB, bodyA.getPosition(), bodyB.getPosition());	// Initialises the joint using the two bodies.
+		jointDef.length = OrbLayer.ORB_DIAMETER;										// Ensures the joint is the size of an orb.
+		clusters.union(a, b);															// The clusters of both orbs are merged
+		return world.createJoint(jointDef);												// and then the joint is created.
+	}
+
+	/**
+	 * Breaks every joint attached to the given orb.
+	 * @param orb The orb being detached.
+	 */
+	public void detach(OrbData orb) {
+		Array<JointEdge> edges = orb.body.getJointList();	// Box2d keeps a list of the joints attached to each body,
+		while(edges.size > 0) destroy(edges.peek().joint);	// which shrinks as each joint is destroyed.
+	}
+
+	/**
+	 * Breaks every joint in the simulation.
+	 */
+	public void detachAll() {
+		world.getJoints(joints);								// Every joint in the simulation is found
+		for(int i = 0; i < joints.size; i++) world.destroyJoint(joints.get(i));	// and destroyed.
+		joints.clear();											// The array is then cleared so that it holds no dead joints.
+		pairs.clear();											// No orbs are joined any more,
+		clusters.clear();										// so every orb is in a cluster of its own.
+	}
+
+	/**
+	 * @param a The first orb.
+	 * @param b The second orb.
+	 * @return Whether or not the two orbs are directly joined.
+	 */
+	public boolean isJoined(OrbData a, OrbData b) {
+		return pairs.contains(a.id, b.id);
+	}
+
+	/**
+	 * @return Number of joints currently in the simulation.
+	 */
+	public int getJointCount() {
+		return world.getJointCount();
+	}
+
+	/**
+	 * @return Number of joints which weren't created because the orbs were already joined.
+	 */
+	public int getRejected() {
+		return rejected;
+	}
+
+	/**
+	 * Breaks the given joint.
+	 * @param joint The joint being destroyed.
+	 */
+	private void destroy(Joint joint) {
+		OrbData a = getOrbA(joint), b = getOrbB(joint);
+		pairs.remove(a.id, b.id);	// The pair of orbs is no longer joined,
+		world.destroyJoint(joint);	// the joint is removed from the world
+		clusters.split(a, b);		// and the cluster it was in is rebuilt if it has come apart.
+	}
+
+	/**
+	 * @param joint A joint between two orbs.
+	 * @return The first orb in the joint.
+	 */
+	public static OrbData getOrbA(Joint joint) {
+		return (OrbData) joint.getBodyA().getUserData();
+	}
+
+	/**
+	 * @param joint A joint between two orbs.
+	 * @return The second orb in the joint.
+	 */
+	public static OrbData getOrbB(Joint joint) {
+		return (OrbData) joint.getBodyB().getUserData();
+	}
+}
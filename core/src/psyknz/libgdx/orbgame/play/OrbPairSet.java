@@ -0,0 +1,143 @@
+package psyknz.libgdx.orbgame.play;
+
+/**
+ * Set of unordered pairs of orb ids, stored as primitive long keys in an open addressing hash table. Adding, removing and looking up
+ * a pair creates no garbage. Removal shifts the following entries back into place rather than leaving markers behind, so the table
+ * never fills up with deleted entries.
+ */
+public class OrbPairSet {
+
+	private static final float LOAD_FACTOR = 0.5f;	// Fraction of the table which may be filled before it grows.
+
+	private long[] keys;	// Keys of the pairs in the set, or 0 for an empty slot.
+	private int mask;		// Length of the table minus one, used to wrap indices. The table length is always a power of two.
+	private int size;		// Number of pairs in the set.
+	private int threshold;	// Number of pairs the table can hold before it grows.
+
+	/**
+	 * Creates a new empty pair set.
+	 */
+	public OrbPairSet() {
+		allocate(64);
+	}
+
+	/**
+	 * Adds the pair of ids to the set. The order of the ids doesn't matter.
+	 * @param a Id of the first orb.
+	 * @param b Id of the second orb.
+	 * @return true if the pair wasn't already in the set.
+	 */
+	public boolean add(int a, int b) {
+		long key = key(a, b);
+		int i = indexOf(key);
+		if(keys[i] == key) return false;	// Pairs can only be in the set once.
+
+		keys[i] = key;						// Otherwise the pair is placed in the empty slot found.
+		if(++size > threshold) resize(keys.length * 2);
+		return true;
+	}
+
+	/**
+	 * Removes the pair of ids from the set. The order of the ids doesn't matter.
+	 * @param a Id of the first orb.
+	 * @param b Id of the second orb.
+	 * @return true if the pair was in the set.
+	 */
+	public boolean remove(int a, int b) {
+		long key = key(a, b);
+		int i = indexOf(key);
+		if(keys[i] != key) return false;	// Pairs which aren't in the set can't be removed.
+
+		int next = (i + 1) & mask;					// Every entry in the run following the removed entry is shifted back into
+		while(keys[next] != 0) {					// the hole it leaves, unless that would move it before the slot it hashes to.
+			int home = hash(keys[next]) & mask;		//
+			if(((next - home) & mask) >= ((next - i) & mask)) {	//
+				keys[i] = keys[next];				//
+				i = next;							//
+			}										//
+			next = (next + 1) & mask;				//
+		}
+		keys[i] = 0;	// The last hole left behind is emptied.
+		size--;
+		return true;
+	}
+
+	/**
+	 * @param a Id of the first orb.
+	 * @param b Id of the second orb.
+	 * @return true if the pair is in the set, in either order.
+	 */
+	public boolean contains(int a, int b) {
+		long key = key(a, b);
+		return keys[indexOf(key)] == key;
+	}
+
+	/**
+	 * Removes every pair from the set.
+	 */
+	public void clear() {
+		for(int i = 0; i < keys.length; i++) keys[i] = 0;
+		size = 0;
+	}
+
+	/**
+	 * @return Number of pairs in the set.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Finds the slot holding the given key, or the empty slot where it would be placed.
+	 * @param key The key being looked for.
+	 * @return Index of the slot.
+	 */
+	private int indexOf(long key) {
+		int i = hash(key) & mask;
+		while(keys[i] != 0 && keys[i] != key) i = (i + 1) & mask;
+		return i;
+	}
+
+	/**
+	 * Replaces the table with an empty one of the given length and re-adds every key.
+	 * @param length New length of the table. Must be a power of two.
+	 */
+	private void resize(int length) {
+		long[] old = keys;
+		allocate(length);
+		for(int i = 0; i < old.length; i++) {
+			if(old[i] != 0) keys[indexOf(old[i])] = old[i];
+		}
+	}
+
+	/**
+	 * Creates an empty table of the given length.
+	 * @param length Length of the table. Must be a power of two.
+	 */
+	private void allocate(int length) {
+		keys = new long[length];
+		mask = length - 1;
+		threshold = (int) (length * LOAD_FACTOR);
+	}
+
+	/**
+	 * Combines two ids into a key which is the same whichever order they're given in. Ids are offset by one so that no key is 0.
+	 * @param a Id of the first orb.
+	 * @param b Id of the second orb.
+	 * @return Key for the pair.
+	 */
+	private static long key(int a, int b) {
+		if(a > b) { int t = a; a = b; b = t; }
+		return ((long) (a + 1) << 32) | (b + 1L);
+	}
+
+	/**
+	 * Mixes the bits of a key so that pairs of nearby ids are spread evenly over the table.
+	 * @param key The key being hashed.
+	 * @return Hash of the key.
+	 */
+	private static int hash(long key) {
+		key *= 0x9E3779B97F4A7C15L;
+		return (int) (key ^ (key >>> 32));
+	}
+}
@@ -0,0 +1,137 @@
+package psyknz.libgdx.orbgame.play;
+
+import psyknz.libgdx.orbgame.layers.OrbLayer;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+
+public class OrbPool {
+
+	private OrbLayer layer;			// Reference to the layer whose orbs are pooled.
+	private BodyDef bodyDef;		// Body definition used to create new orbs.
+	private FixtureDef fixtureDef;	// Fixture definition used to create new orbs.
+	private Sprite sprite;			// Base sprite copied by every new orb.
+
+	private Array<OrbData> freeOrbs;	// Orbs which have been removed from play and are waiting to be reused.
+
+	private int obtained;	// Number of orbs handed out by the pool.
+	private int reused;		// Number of orbs handed out by the pool which were recycled rather than created.
+	private int freed;		// Number of orbs returned to the pool.
+
+	/**
+	 * Creates a new pool of orbs for the given layer. Orbs are only created when there are none waiting to be reused.
+	 * @param layer The layer the pooled orbs belong to.
+	 * @param bodyDef Body definition used to create new orbs.
+	 * @param fixtureDef Fixture definition used to create new orbs.
+	 * @param sprite Base sprite copied by every new orb.
+	 */
+	public OrbPool(OrbLayer layer, BodyDef bodyDef, FixtureDef fixtureDef, Sprite sprite) {
+		this.layer = layer;				// Saves references to everything needed to create new orbs.
+		this.bodyDef = bodyDef;			//
+		this.fixtureDef = fixtureDef;	//
+		this.sprite = sprite;			//
+
+		freeOrbs = new Array<OrbData>();	// Initialises the array holding orbs waiting to be reused.
+	}
+
+	/**
+	 * Gets a FREE orb of the given color at the given location. Parked orbs are reused before any new orb is created.
+	 * @param x X co-ordinate of the orb.
+	 * @param y Y co-ordinate of the orb.
+	 * @param color Color the orb should be.
+	 * @param colorIndex Index of the color in the palette.
+	 * @return The orb, ready to be added to play.
+	 */
+	public OrbData obtain(float x, float y, Color color, int colorIndex) {
+		obtained++;	// Records that another orb has been handed out.
+
+		if(freeOrbs.size <= 0) {							// If there are no orbs to reuse
+			bodyDef.position.set(x, y);						// a new body is created at the given location
+			Body body = layer.world.createBody(bodyDef);	// in the physics world,
+			body.createFixture(fixtureDef);					// with the fixture representing the physical orb.
+			OrbData orb = new OrbData(layer, body, sprite, color, colorIndex, OrbData.State.FREE);
+			layer.clusters.add(orb);						// The new orb starts in a cluster of its own.
+			return orb;
+		}
+
+		reused++;								// Otherwise a parked orb is recycled.
+		OrbData orb = freeOrbs.pop();			//
+		Body body = orb.body;					// Its body is woken back up
+		body.setActive(true);					// and restored to how a newly created body would be,
+		body.setType(BodyDef.BodyType.DynamicBody);	// undoing any changes made while it was selected or falling off screen.
+		body.setSleepingAllowed(true);			//
+		body.setTransform(x, y, 0);				//
+		body.setLinearVelocity(0, 0);			//
+		body.setAngularVelocity(0);				//
+
+		Fixture fixture = body.getFixtureList().first();				// The same goes for its fixture.
+		fixture.setSensor(false);										//
+		fixture.getShape().setRadius(fixtureDef.shape.getRadius());		//
+
+		orb.reset(color, colorIndex, OrbData.State.FREE);	// Finally its orb data is reset
+		layer.clusters.add(orb);							// and it starts in a cluster of its own.
+		return orb;
+	}
+
+	/**
+	 * Returns an orb to the pool. Its body is parked as inactive so that box2d ignores it until it is reused.
+	 * @param orb The orb which has been removed from play.
+	 */
+	public void free(OrbData orb) {
+		freed++;	// Records that another orb has been returned.
+
+		layer.joints.detach(orb);					// Any joints still attached to the orb are broken,
+		if(orb.hasSprite())							// any tweens acting on its sprite are stopped,
+			layer.manager.killTarget(orb.getSprite());	//
+		orb.body.setActive(false);					// and the body is removed from the simulation.
+		freeOrbs.add(orb);							// The orb then waits to be reused.
+	}
+
+	/**
+	 * @return Number of orbs handed out by the pool.
+	 */
+	public int getObtained() {
+		return obtained;
+	}
+
+	/**
+	 * @return Number of orbs handed out by the pool which were recycled.
+	 */
+	public int getReused() {
+		return reused;
+	}
+
+	/**
+	 * @return Number of orbs the pool has had to create.
+	 */
+	public int getCreated() {
+		return obtained - reused;
+	}
+
+	/**
+	 * @return Number of orbs returned to the pool.
+	 */
+	public int getFreed() {
+		return freed;
+	}
+
+	/**
+	 * @return Number of orbs currently parked in the pool.
+	 */
+	public int getFree() {
+		return freeOrbs.size;
+	}
+
+	/**
+	 * @return Fraction of orbs handed out which were recycled rather than created, between 0 and 1.
+	 */
+	public float getHitRate() {
+		if(obtained <= 0) return 0;
+		return (float) reused / obtained;
+	}
+}
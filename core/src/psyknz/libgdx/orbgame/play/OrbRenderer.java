@@ -0,0 +1,84 @@
+package psyknz.libgdx.orbgame.play;
+
+import psyknz.libgdx.orbgame.misc.GamePalette;
+
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Draws orbs straight into a sprite batch from their position in the snapshot and their palette color. Every orb shares the same
+ * texture region and size, so an orb needs no sprite of its own to be drawn. Orbs which do have their own sprite, such as selected
+ * orbs or orbs being tweened, are drawn using that sprite instead.
+ */
+public class OrbRenderer {
+
+	private static final int VERTEX_SIZE = 5;			// Floats per vertex: x, y, color, u and v.
+	private static final int QUAD_SIZE = VERTEX_SIZE * 4;	// Floats per orb drawn.
+
+	private OrbSnapshot snapshot;	// Snapshot holding where the orbs are.
+	private GamePalette palette;	// Palette the orbs are colored from.
+	private TextureRegion region;	// Texture region every orb is drawn with.
+	private float width, height;	// Size every orb is drawn at.
+
+	private float[] vertices;		// Vertices of the orb currently being drawn.
+	private float[] colors;			// Packed version of every color in the palette, refreshed each time drawing begins.
+	private float alpha;			// Fraction of a physics step which has passed since the last step, used to interpolate orbs.
+
+	/**
+	 * Creates a new renderer for the orbs in the given snapshot.
+	 * @param snapshot The snapshot holding where the orbs are.
+	 * @param palette The palette the orbs are colored from.
+	 * @param template Sprite whose texture region and size every orb is drawn with.
+	 */
+	public OrbRenderer(OrbSnapshot snapshot, GamePalette palette, Sprite template) {
+		this.snapshot = snapshot;
+		this.palette = palette;
+		this.region = template;	// The template is used as it is, since headless layers give one with no texture to copy.
+		this.width = template.getWidth();
+		this.height = template.getHeight();
+
+		vertices = new float[QUAD_SIZE];
+		colors = new float[0];
+	}
+
+	/**
+	 * Prepares to draw orbs interpolated by the given amount. Should be called before each frame's orbs are drawn.
+	 * @param alpha Fraction of a physics step which has passed since the last step, between 0 and 1.
+	 */
+	public void begin(float alpha) {
+		this.alpha = alpha;
+
+		if(colors.length != palette.getNumColors()) colors = new float[palette.getNumColors()];	// Packs every color in the palette
+		for(int i = 0; i < colors.length; i++) colors[i] = palette.getColor(i).toFloatBits();	// in case the palette has changed.
+	}
+
+	/**
+	 * Draws an orb. If the orb has its own sprite it is drawn with that, otherwise it is written directly to the batch.
+	 * @param batch The batch the orb is drawn with.
+	 * @param orb The orb being drawn.
+	 */
+	public void draw(SpriteBatch batch, OrbData orb) {
+		if(orb.hasSprite()) {			// Orbs with sprites of their own
+			orb.getSprite().draw(batch);	// draw themselves.
+			return;
+		}
+
+		int id = orb.id;
+		float[] prevX = snapshot.prevX, prevY = snapshot.prevY;
+		float x = prevX[id] + (snapshot.x[id] - prevX[id]) * alpha - width / 2;	// Finds the bottom left corner of the orb
+		float y = prevY[id] + (snapshot.y[id] - prevY[id]) * alpha - height / 2;	// between where it was before and after the step.
+		float x2 = x + width, y2 = y + height;
+
+		int c = orb.getColorIndex();
+		float color = c >= 0 && c < colors.length ? colors[c] : orb.getColor().toFloatBits();	// Finds the packed color of the orb.
+
+		float u = region.getU(), v = region.getV2(), u2 = region.getU2(), v2 = region.getV();
+		float[] vtx = vertices;
+		vtx[0] = x;		vtx[1] = y;		vtx[2] = color;		vtx[3] = u;		vtx[4] = v;		// Bottom left.
+		vtx[5] = x;		vtx[6] = y2;	vtx[7] = color;		vtx[8] = u;		vtx[9] = v2;	// Top left.
+		vtx[10] = x2;	vtx[11] = y2;	vtx[12] = color;	vtx[13] = u2;	vtx[14] = v2;	// Top right.
+		vtx[15] = x2;	vtx[16] = y;	vtx[17] = color;	vtx[18] = u2;	vtx[19] = v;	// Bottom right.
+		batch.draw(region.getTexture(), vtx, 0, QUAD_SIZE);
+	}
+}
@@ -0,0 +1,147 @@
+package psyknz.libgdx.orbgame.play;
+
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * Copy of the physics state of every orb, held in plain arrays indexed by orb id. Reading a body's position or velocity crosses into
+ * native code, so the snapshot reads each body once after the world has been stepped and everything else in the game reads the
+ * snapshot instead. Positions from before the most recent step are kept alongside so that orbs can be drawn between the two.
+ */
+public class OrbSnapshot {
+
+	public float[] x, y;			// Position of each orb after the most recent physics step.
+	public float[] vx, vy;			// Velocity of each orb after the most recent physics step.
+	public float[] prevX, prevY;	// Position of each orb before the most recent physics step.
+	public float[] targetX, targetY;	// Point each orb is moving towards while FREE.
+	public byte[] state;			// Ordinal of the state each orb is in.
+	public int[] color;				// Index of the palette color each orb is, or -1.
+
+	private OrbStore store;	// Store whose orbs are captured.
+
+	/**
+	 * Creates a new empty snapshot of the orbs in the given store.
+	 * @param store The store the orbs are in.
+	 */
+	public OrbSnapshot(OrbStore store) {
+		this.store = store;
+		ensureCapacity(32);	// Makes room for the first orbs.
+	}
+
+	/**
+	 * Reads the position and velocity of every orb in the store from its body. Should be called once after the world is stepped. Frozen
+	 * orbs are only checked to see whether box2d has woken them, as a sleeping body hasn't moved.
+	 * @param buckets Buckets which regroup each orb once its new position is known, or null if crossings aren't being tracked.
+	 */
+	public void capture(OrbBuckets buckets) {
+		ensureCapacity(store.getNumIds());
+		Vector2 v;
+		for(int i = 0; i < store.size; i++) {	// For every orb in the store
+			OrbData o = store.get(i);			// its body's position
+			int id = o.id;						// and velocity are copied.
+			if(o.isFrozen()) {								// Frozen orbs are skipped
+				if(!o.body.isAwake()) continue;				// while they're still asleep,
+				o.layer.freezer.woke(o);					// otherwise they have thawed.
+			}
+			v = o.body.getPosition();			//
+			x[id] = v.x;						//
+			y[id] = v.y;						//
+			v = o.body.getLinearVelocity();		//
+			vx[id] = v.x;						//
+			vy[id] = v.y;						//
+			state[id] = (byte) o.getState().ordinal();
+			color[id] = o.getColorIndex();
+			if(buckets != null) buckets.refresh(o);	// Orbs which crossed the edge of the field are regrouped.
+		}
+	}
+
+	/**
+	 * Records where every orb in the store is before a physics step. Positions are taken from the snapshot if it was captured since
+	 * the last step, otherwise they're read from the bodies.
+	 * @param captured Whether or not the snapshot has been captured since the world was last stepped.
+	 */
+	public void capturePrevious(boolean captured) {
+		ensureCapacity(store.getNumIds());
+		Vector2 v;
+		for(int i = 0; i < store.size; i++) {
+			int id = store.get(i).id;
+			if(captured) {					// If the snapshot is up to date
+				prevX[id] = x[id];			// positions are simply copied,
+				prevY[id] = y[id];			//
+			} else {						// otherwise several steps are being run in one frame
+				v = store.get(i).body.getPosition();	// and the bodies have to be read.
+				prevX[id] = v.x;			//
+				prevY[id] = v.y;			//
+			}
+		}
+	}
+
+	/**
+	 * Reads a single orb from its body, with no motion to interpolate. Used when an orb is created or moved by hand.
+	 * @param orb The orb being recorded.
+	 */
+	public void reset(OrbData orb) {
+		Vector2 v = orb.body.getPosition();
+		moveTo(orb, v.x, v.y);
+	}
+
+	/**
+	 * Records that an orb has been placed at the given position, with no motion to interpolate.
+	 * @param orb The orb which was moved.
+	 * @param px X co-ordinate of the orb.
+	 * @param py Y co-ordinate of the orb.
+	 */
+	public void moveTo(OrbData orb, float px, float py) {
+		int id = orb.id;
+		ensureCapacity(id + 1);
+		x[id] = prevX[id] = px;
+		y[id] = prevY[id] = py;
+		vx[id] = vy[id] = 0;
+		state[id] = (byte) orb.getState().ordinal();
+		color[id] = orb.getColorIndex();
+	}
+
+	/**
+	 * Records the state of an orb and its target once they change.
+	 * @param orb The orb whose state has changed.
+	 * @param tx X co-ordinate of the orbs target.
+	 * @param ty Y co-ordinate of the orbs target.
+	 */
+	public void setState(OrbData orb, float tx, float ty) {
+		ensureCapacity(orb.id + 1);
+		state[orb.id] = (byte) orb.getState().ordinal();
+		targetX[orb.id] = tx;
+		targetY[orb.id] = ty;
+	}
+
+	/**
+	 * Grows the arrays so that they can hold at least the given number of ids.
+	 * @param capacity Number of ids the arrays need to hold.
+	 */
+	private void ensureCapacity(int capacity) {
+		if(x != null && x.length >= capacity) return;	// Nothing is done if there is already enough room.
+
+		int length = Math.max(capacity, x == null ? 0 : x.length * 2);	// The arrays at least double in size
+		x = copyOf(x, length);											// and keep everything recorded so far.
+		y = copyOf(y, length);											//
+		vx = copyOf(vx, length);										//
+		vy = copyOf(vy, length);										//
+		prevX = copyOf(prevX, length);									//
+		prevY = copyOf(prevY, length);									//
+		targetX = copyOf(targetX, length);								//
+		targetY = copyOf(targetY, length);								//
+		int[] newColor = new int[length];								//
+		byte[] newState = new byte[length];								//
+		if(color != null) {												//
+			System.arraycopy(color, 0, newColor, 0, color.length);		//
+			System.arraycopy(state, 0, newState, 0, state.length);		//
+		}																//
+		color = newColor;												//
+		state = newState;												//
+	}
+
+	private static float[] copyOf(float[] array, int length) {
+		float[] newArray = new float[length];
+		if(array != null) System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+}
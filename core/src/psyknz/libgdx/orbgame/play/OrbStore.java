@@ -0,0 +1,119 @@
+package psyknz.libgdx.orbgame.play;
+
+/**
+ * Dense store of the orbs active in a simulation. Every orb knows which slot it occupies so it can be removed in constant time by
+ * moving the last orb into its slot. Orbs should be iterated from the last slot to the first, which makes it safe to remove the orb
+ * currently being visited since only an orb that has already been visited is moved. Every orb ever created is also registered with a
+ * stable id which never changes while the orb moves between slots or in and out of the store.
+ */
+public class OrbStore {
+
+	public int size;			// Number of orbs currently in the store.
+	private OrbData[] items;	// Orbs in the store, packed into the first size slots.
+
+	private OrbData[] registry;	// Every orb registered with the store, indexed by its id.
+	private int numIds;			// Number of ids which have been given out.
+
+	/**
+	 * Creates a new empty orb store.
+	 */
+	public OrbStore() {
+		items = new OrbData[32];	// Initialises room for the orbs in the store
+		registry = new OrbData[32];	// and the orbs which have been registered.
+	}
+
+	/**
+	 * Registers an orb with the store, giving it an id. Registering an orb does not add it to the store.
+	 * @param orb The orb being registered.
+	 * @return The id the orb should use for the rest of its life.
+	 */
+	public int register(OrbData orb) {
+		if(numIds >= registry.length) registry = resize(registry, numIds * 2);	// The registry grows if it is full,
+		registry[numIds] = orb;													// before the orb is recorded
+		return numIds++;														// under the next unused id.
+	}
+
+	/**
+	 * @param id The id of a registered orb.
+	 * @return The orb registered with the given id, or null if no orb has that id.
+	 */
+	public OrbData lookup(int id) {
+		if(id < 0 || id >= numIds) return null;
+		return registry[id];
+	}
+
+	/**
+	 * @return Number of ids which have been given out. All ids are less than this number.
+	 */
+	public int getNumIds() {
+		return numIds;
+	}
+
+	/**
+	 * Adds an orb to the end of the store. Does nothing if the orb is already in the store.
+	 * @param orb The orb being added.
+	 */
+	public void add(OrbData orb) {
+		if(contains(orb)) return;										// Orbs may only be in the store once.
+		if(size >= items.length) items = resize(items, size * 2);	// The store grows if it is full,
+		items[size] = orb;												// before the orb is placed in the first free slot
+		orb.slot = size++;												// and told which slot it is in.
+	}
+
+	/**
+	 * Removes an orb from the store by moving the last orb into its slot.
+	 * @param orb The orb being removed.
+	 * @return true if the orb was in the store.
+	 */
+	public boolean remove(OrbData orb) {
+		if(!contains(orb)) return false;	// Orbs which aren't in the store can't be removed.
+
+		int slot = orb.slot;			// Records the slot which is being emptied.
+		OrbData last = items[--size];	// The last orb in the store
+		items[slot] = last;				// is moved into the emptied slot
+		last.slot = slot;				// and told where it has moved to.
+		items[size] = null;				// The old last slot is cleared
+		orb.slot = -1;					// and the removed orb is told it's no longer in the store.
+		return true;
+	}
+
+	/**
+	 * @param orb The orb to look for.
+	 * @return true if the orb is currently in the store.
+	 */
+	public boolean contains(OrbData orb) {
+		return orb.slot >= 0 && orb.slot < size && items[orb.slot] == orb;
+	}
+
+	/**
+	 * @param slot The slot to get the orb from, between 0 and size - 1.
+	 * @return The orb in that slot.
+	 */
+	public OrbData get(int slot) {
+		if(slot >= size) throw new IndexOutOfBoundsException("slot can't be >= size: " + slot + " >= " + size);
+		return items[slot];
+	}
+
+	/**
+	 * Removes every orb from the store. Registered ids are kept.
+	 */
+	public void clear() {
+		for(int i = 0; i < size; i++) {	// Every orb in the store
+			items[i].slot = -1;			// is told it's no longer in the store
+			items[i] = null;			// and its slot is cleared.
+		}
+		size = 0;
+	}
+
+	/**
+	 * Copies an array of orbs into a new array of the given length.
+	 * @param array The array to copy.
+	 * @param length Length of the new array.
+	 * @return The new array.
+	 */
+	private static OrbData[] resize(OrbData[] array, int length) {
+		OrbData[] newArray = new OrbData[length];
+		System.arraycopy(array, 0, newArray, 0, array.length);
+		return newArray;
+	}
+}
@@ -6,25 +6,29 @@ import psyknz.libgdx.orbgame.misc.VectorTracker;
 import com.badlogic.gdx.InputAdapter;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.physics.box2d.BodyDef;
-import com.badlogic.gdx.physics.box2d.Joint;
 
 public class PlayController extends InputAdapter {
 	
 	public static final float SELECTED_ORB_DIAMETER = OrbLayer.ORB_DIAMETER * 1.25f;	// Size orbs should be once selected.
+	public static final float DRAG_TOLERANCE = 2;	// Distance in pixels a drag must stray from a straight path to be recorded.
 	
 	private OrbLayer layer;					// Reference to the orb layer this is the player controller for.
 	public final VectorTracker touches;		// VectorTracker recording all user input co-ordinates.
+	public final TouchBuffer drags;			// Buffer of raw drag samples in screen co-ordinates, coalesced once per frame.
 	private Array<OrbData> selectedOrbs;	// Array containing all orbs selected by the player.
 	
 	private Camera camera = null; 			// Reference to the camera being used to draw the scene. Does not process input if null.
 	private Vector3 touch = new Vector3();	// Temporary Vector3 used to process touch input.
 	private int activeFinger;				// Record of the finger used to select the current range of orbs.
 	
-	private Array<Vector2> drawCoords = new Array<Vector2>();	// Temporary array of Vector2 objects for drawing selected orbs.
+	private float[] drawX = new float[16], drawY = new float[16];	// Temporary co-ordinates for placing selected orbs.
+	private Array<OrbData> touched = new Array<OrbData>();		// Temporary array of orbs found underneath a touch.
+	private int drawn, culled;									// Number of selected orbs drawn and culled when last drawn.
 	
 	/** 
 	 * Creates a new PlayerController.
@@ -34,7 +38,8 @@ public class PlayController extends InputAdapter {
 	 */
 	public PlayController(OrbLayer layer) {
 		this.layer = layer;									// Sets the layer this is the controller for.
-		touches = new VectorTracker(SELECTED_ORB_DIAMETER);	// Creates a new VectorTracker to track touch input.
+		touches = new VectorTracker(SELECTED_ORB_DIAMETER);	// Creates a new VectorTracker to track touch input
+		drags = new TouchBuffer();							// and the buffer drags are collected in each frame.
 		selectedOrbs = new Array<OrbData>();				// Initialises the array recording what orbs the player has selected.
 	}
 	
@@ -51,13 +56,7 @@ public class PlayController extends InputAdapter {
 	 * @param orb Reference to the orb which will be added to the array of selected orbs.
 	 */
 	public void selectOrb(OrbData orb) {		
-		Array<Joint> joints = new Array<Joint>();								// Temporary Array used to access joints.
-		layer.world.getJoints(joints);											// Gets a list of all joints in the game.
-		for(Joint joint : joints) {												// Iterates through each joint;
-			if(joint.getBodyA() == orb.body || joint.getBodyB() == orb.body) {	// if the selected orb is attached to the joint,
-				layer.world.destroyJoint(joint);								// then the joint is destroyed.
-			}
-		}
+		layer.joints.detach(orb);	// Breaks every joint attached to the selected orb.
 		
 		if(selectedOrbs.size > 0) 									// If there are any currently selected orbs the current actively
 			selectedOrbs.peek().setState(OrbData.State.SELECTED);	// selected orb becomes selected.
@@ -65,9 +64,11 @@ public class PlayController extends InputAdapter {
 		selectedOrbs.add(orb); 										// Adds the given orb to array of selected orbs,
 		
 		touches.setDistance((selectedOrbs.size + 1) * SELECTED_ORB_DIAMETER);	// Extends the length of touch input recorded and
-		touches.addVectorToEnd(orb.body.getPosition());							// adds the position of the selected orb to the end.
+		touches.addVectorToEnd(layer.snapshot.x[orb.id], 						// adds the position of the selected orb to the end.
+				layer.snapshot.y[orb.id]);										//
 		
-		orb.body.setType(BodyDef.BodyType.StaticBody);		// Sets the selected orb to static so that it isn't affected by forces.
+		orb.body.setType(BodyDef.BodyType.KinematicBody);	// Sets the selected orb to kinematic so that it isn't affected by forces,
+		orb.body.setSleepingAllowed(false);					// and keeps it awake so that it still touches frozen orbs.
 		orb.body.getFixtureList().first().setSensor(true);	// Selected orb is set to a sensor to prevent physics based collisions.
 
 		orb.body.getFixtureList().first().getShape().setRadius(SELECTED_ORB_DIAMETER / 2);	// Blows up the orbs circle fixture,
@@ -85,7 +86,7 @@ public class PlayController extends InputAdapter {
 		
 		layer.scoreOrbs(selectedOrbs.size);								// Scores all the orbs currently selected.
 		selectedOrbs.peek().setState(OrbData.State.SELECTED);			// Active selected orb becomes selected to prevent collisions.
-		for(OrbData o : selectedOrbs) layer.world.destroyBody(o.body);	// Every selected orb is removed from the box2d simulation,
+		for(OrbData o : selectedOrbs) layer.removeOrb(o);				// Every selected orb is removed from the box2d simulation,
 		selectedOrbs.clear();											// and the array of selected orbs is cleared.
 		touches.setDistance(SELECTED_ORB_DIAMETER);						// Finally the input tracking distance is reset.
 	}
@@ -99,25 +100,14 @@ public class PlayController extends InputAdapter {
 	public boolean touchDown(int screenX, int screenY, int pointer, int button) {
 		if(camera == null) return false;	// If no camera is set (and touch co-ordinates can't be unprojected) input isn't processed.
 		
-		touch.set(screenX, screenY, 0); // Saves the current co-ordinates for the users touch input.
-		camera.unproject(touch); 		// Transforms the touch co-ordinates from screen space to world space.
-		
-		for(OrbData o : layer.orbs) { 							// Every orb is assessed,
-			if(o.getState() == OrbData.State.FREE) { 			// and checked to see if it is currently FREE.
-				if(o.getBounds().contains(touch.x, touch.y)) {	// If it is and the player has touched down on it,
-					activeFinger = pointer;						// the finger used to make the selection is recorded,
-					touches.addVector(touch.x, touch.y);		// and the touch co-ordinate is recorded.
-					layer.selectOrb(o);							// the touched orb is added to the list of selected orbs,
-					return true;								// Prevents further input from being processed.
-				}
-			}
-		}
-		return false;	// Because nothing was selected further input is processed.
+		touch.set(screenX, screenY, 0); 			// Saves the current co-ordinates for the users touch input.
+		camera.unproject(touch); 					// Transforms the touch co-ordinates from screen space to world space.
+		return touchDownAt(touch.x, touch.y, pointer);	// The touch is then processed in world space.
 	}
 	
 	/** 
 	 * Processes the player dragging their finger across the screen. Provided the player currently has some orbs selected the movement
-	 * is recorded by the touchTracker object.
+	 * is buffered, and once per frame the buffered movement is coalesced and recorded by the touchTracker object.
 	 * @see com.badlogic.gdx.InputAdapter#touchDragged(int, int, int) 
 	 */
 	@Override
@@ -125,9 +115,7 @@ public class PlayController extends InputAdapter {
 		if(camera == null) return false;	// If no camera is set (and touch co-ordinates can't be unprojected) input isn't processed.
 		
 		if(selectedOrbs.size > 0 && pointer == activeFinger) {	// Only processed if the player currently has orbs selected.
-			touch.set(screenX, screenY, 0); 					// Stores the co-ordinates where the player has touched the screen.
-			camera.unproject(touch); 							// Transforms the touch co-ordinates from screen space to world space.
-			touches.addVector(touch.x, touch.y);				// Adds the current touch-coordinate to the TouchTracker.
+			drags.record(screenX, screenY);						// The drag is kept in screen space until the frame is updated.
 			return true;
 		}
 		return false;
@@ -140,8 +128,54 @@ public class PlayController extends InputAdapter {
 	@Override
 	public boolean touchUp(int screenX, int screenY, int pointer, int button) {
 		if(camera == null) return false;	// If no camera is set (and touch co-ordinates can't be unprojected) input isn't processed.
-		
+		return touchUpAt(pointer);			// Lifting a finger doesn't depend on where it was lifted.
+	}
+	
+	/**
+	 * Processes a touch down at the given point in world space. If it lands on top of a FREE orb that orb becomes selected.
+	 * @param x X co-ordinate of the touch in in-game units.
+	 * @param y Y co-ordinate of the touch in in-game units.
+	 * @param pointer The finger used to touch down.
+	 * @return true if an orb was selected.
+	 */
+	public boolean touchDownAt(float x, float y, int pointer) {
+		layer.grid.queryPoint(x, y, touched);				// Every orb underneath the touch is found
+		for(int i = 0; i < touched.size; i++) {				// and assessed
+			OrbData o = touched.get(i);						//
+			if(o.getState() == OrbData.State.FREE) { 		// to see if it is currently FREE.
+				activeFinger = pointer;						// If it is the finger used to make the selection is recorded,
+				drags.reset();								// any drags from another touch are forgotten
+				touches.addVector(x, y);					// and the touch co-ordinate is recorded.
+				layer.selectOrb(o);							// the touched orb is added to the list of selected orbs,
+				return true;								// Prevents further input from being processed.
+			}
+		}
+		return false;	// Because nothing was selected further input is processed.
+	}
+	
+	/**
+	 * Processes a drag to the given point in world space. Only recorded if the player currently has orbs selected with that finger.
+	 * @param x X co-ordinate of the drag in in-game units.
+	 * @param y Y co-ordinate of the drag in in-game units.
+	 * @param pointer The finger being dragged.
+	 * @return true if the drag was recorded.
+	 */
+	public boolean touchDraggedAt(float x, float y, int pointer) {
+		if(selectedOrbs.size > 0 && pointer == activeFinger) {	// Only processed if the player currently has orbs selected.
+			touches.addVector(x, y);							// Adds the current touch-coordinate to the TouchTracker.
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Processes the given finger being lifted. If it was holding a chain of selected orbs they are scored.
+	 * @param pointer The finger being lifted.
+	 * @return true if orbs were scored.
+	 */
+	public boolean touchUpAt(int pointer) {
 		if(selectedOrbs.size > 0 && pointer == activeFinger) {	// If there are currently some orbs selected,
+			drags.reset();										// drags still waiting to be recorded are dropped
 			scoreSelectedOrbs();								// each selected orb is removed from the box2d simulation.
 			return true;
 		}
@@ -152,18 +186,62 @@ public class PlayController extends InputAdapter {
 	 * Runs the game logic for the player.
 	 */
 	public void update() {
-		touches.interpolateCoords(										// Interpolates an evenly spaced set of co-ordinates matching
-				drawCoords, selectedOrbs.size, SELECTED_ORB_DIAMETER);	// the users input and stores them in an array.
-		for(int i = 0; i < selectedOrbs.size; i++) {					// For each orb that is currently selected
-			selectedOrbs.get(i).setPosition(drawCoords.get(i));			// Its position is updated based on the interpolated coords.
+		recordDrags();	// Drags made since the last frame are recorded before the chain is laid out.
+		
+		if(drawX.length < selectedOrbs.size) {							// Makes sure there is room for a co-ordinate
+			drawX = new float[selectedOrbs.size * 2];					// for every selected orb.
+			drawY = new float[selectedOrbs.size * 2];					//
+		}
+		int num = touches.interpolateCoords(							// Interpolates an evenly spaced set of co-ordinates matching
+				drawX, drawY, selectedOrbs.size, SELECTED_ORB_DIAMETER);	// the users input and stores them in the arrays.
+		for(int i = 0; i < num; i++) {									// For each orb that is currently selected
+			selectedOrbs.get(i).setPosition(drawX[i], drawY[i]);		// Its position is updated based on the interpolated coords.
 		}
 	}
 	
 	/** 
-	 * Draws all player controlled orbs.
+	 * Draws all player controlled orbs which are inside the layers cull area.
 	 * @param batch The SpriteBatch used to draw the players orbs. 
 	 */
 	public void draw(SpriteBatch batch) {
-		for(OrbData o: selectedOrbs) o.getSprite().draw(batch);	// and is drawn to the screen.
+		Rectangle cullArea = layer.getCullArea();	// Finds the area orbs need to be inside to be drawn.
+		drawn = 0;
+		for(int i = 0; i < selectedOrbs.size; i++) {							// Every selected orb
+			Sprite sprite = selectedOrbs.get(i).getSprite();					// which overlaps the cull area
+			if(cullArea != null && !cullArea.overlaps(sprite.getBoundingRectangle())) continue;
+			sprite.draw(batch);													// is drawn to the screen.
+			drawn++;
+		}
+		culled = selectedOrbs.size - drawn;
+	}
+	
+	/**
+	 * Coalesces the drags buffered since the last frame and records the samples kept in the touch tracker. Only kept samples are
+	 * transformed into world space, so the cost of a frame doesn't depend on how often the input device reports movement.
+	 */
+	private void recordDrags() {
+		int num = drags.coalesce(DRAG_TOLERANCE);
+		if(camera != null && selectedOrbs.size > 0) {
+			for(int i = 0; i < num; i++) {
+				touch.set(drags.getX(i), drags.getY(i), 0);	// Transforms each sample from screen space to world space
+				camera.unproject(touch);					// and records it.
+				touches.addVector(touch.x, touch.y);		//
+			}
+		}
+		drags.clear();
+	}
+	
+	/**
+	 * @return Number of selected orbs drawn the last time they were drawn.
+	 */
+	public int getDrawn() {
+		return drawn;
+	}
+	
+	/**
+	 * @return Number of selected orbs culled the last time they were drawn.
+	 */
+	public int getCulled() {
+		return culled;
 	}
 }
@@ -0,0 +1,236 @@
+package psyknz.libgdx.orbgame.play;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Orders a group of orbs into a short path to chain them along. A route is first built by always moving to the nearest orb not yet
+ * visited, then refined with 2-opt moves, each reversing a stretch of the route where doing so shortens it. Refinement picks up where
+ * it left off every frame and stops each frame once its time budget is spent, so long routes are improved over several frames and a
+ * route that can't be improved costs nothing. Without a budget every route is refined until it can't be shortened, so the route
+ * chosen never depends on how fast the machine is.
+ * <p>
+ * Routes are measured the way the chain collects orbs. The actively selected orb picks up any orb it passes within reach of, so the
+ * cost of moving between two orbs is their distance less that reach, and orbs which are already in reach of each other cost nothing.
+ * <p>
+ * Routes are kept in the array given, with the first orb to visit at the end so that it is found with peek() and removed with pop().
+ */
+public class RoutePlanner {
+
+	public static final int CHECK_INTERVAL = 16;	// Number of moves tried between checks of the time budget.
+	public static final float MIN_GAIN = 0.001f;	// Shortest a move must make the route for it to be taken.
+
+	private OrbSnapshot snapshot;	// Snapshot the positions of the orbs are read from.
+	private float reach;			// Distance within which the chain picks up an orb.
+	private long budget;			// Time in nanoseconds refinement may take each frame, or 0 for no limit.
+
+	private Array<OrbData> order;	// Orbs in the order they're visited, first to last.
+	private float[] x, y;			// Position of each orb in the order they're visited.
+	private int i, j;				// Stretch of the route the next move tries to reverse.
+	private boolean improved;		// Whether or not a move has been taken since the current pass started.
+	private boolean converged;		// Whether or not a full pass has found no move which shortens the route.
+
+	private long moves;				// Number of moves taken since the planner was created.
+
+	/**
+	 * Creates a new planner.
+	 * @param snapshot The snapshot the positions of the orbs are read from.
+	 * @param reach Distance within which the chain picks up an orb.
+	 * @param budget Time in seconds refinement may take each frame, or 0 for no limit.
+	 */
+	public RoutePlanner(OrbSnapshot snapshot, float reach, float budget) {
+		this.snapshot = snapshot;
+		this.reach = reach;
+		setBudget(budget);
+		order = new Array<OrbData>();
+		x = new float[16];	// Makes room for the first routes.
+		y = new float[16];	//
+		converged = true;
+	}
+
+	/**
+	 * Builds a new route through the given orbs from the given start, always moving to the nearest orb not yet visited.
+	 * @param startX X co-ordinate the route starts from.
+	 * @param startY Y co-ordinate the route starts from.
+	 * @param route Orbs to visit, which are reordered into the route with the first orb to visit last.
+	 */
+	public void plan(float startX, float startY, Array<OrbData> route) {
+		load(route);
+		int n = order.size;
+		float px = startX, py = startY;
+		for(int k = 0; k < n; k++) {				// Each place in the route
+			int nearest = k;						// is filled by the nearest orb
+			float best = Float.MAX_VALUE;			// still to be visited.
+			for(int m = k; m < n; m++) {			//
+				float dx = x[m] - px, dy = y[m] - py;
+				float d2 = dx * dx + dy * dy;
+				if(d2 < best) {
+					best = d2;
+					nearest = m;
+				}
+			}
+			swap(k, nearest);
+			px = x[k];
+			py = y[k];
+		}
+		store(route);
+	}
+
+	/**
+	 * Refines the route with 2-opt moves until no move shortens it or the time budget for the frame is spent. If the route no longer
+	 * matches the one being refined, such as when orbs have been collected, the remaining orbs are refined in their current order.
+	 * @param startX X co-ordinate the route starts from, usually where the chain is now.
+	 * @param startY Y co-ordinate the route starts from.
+	 * @param route The route being refined, with the first orb to visit last.
+	 * @return Whether or not the route can no longer be shortened.
+	 */
+	public boolean refine(float startX, float startY, Array<OrbData> route) {
+		if(!matches(route)) load(route);	// The route is reloaded if it has changed since it was last refined.
+		int n = order.size;
+		if(converged || n < 2) return converged = true;
+
+		long deadline = TimeUtils.nanoTime() + budget;
+		boolean changed = false;
+		for(int tries = 1; ; tries++) {
+			if(j >= n) {									// Once every stretch starting at i has been tried
+				i++;										// the next start is tried,
+				j = i + 1;									//
+				if(i >= n - 1) {							// and once every stretch has been tried
+					if(!improved) {							// the route is finished unless a move was taken,
+						converged = true;					// in which case another pass is made.
+						break;								//
+					}										//
+					i = 0;									//
+					j = 1;									//
+					improved = false;						//
+				}
+			}
+
+			float ax = i == 0 ? startX : x[i - 1], ay = i == 0 ? startY : y[i - 1];	// Reversing i to j replaces the moves into i
+			float before = cost(ax, ay, x[i], y[i]), after = cost(ax, ay, x[j], y[j]);	// and out of j with moves into j and out of i.
+			if(j < n - 1) {																// The route ends wherever its last orb is,
+				before += cost(x[j], y[j], x[j + 1], y[j + 1]);							// so there is no move out of the last orb.
+				after += cost(x[i], y[i], x[j + 1], y[j + 1]);							//
+			}
+			if(before - after > MIN_GAIN) {		// If the reversal makes the route shorter it is taken.
+				reverse(i, j);
+				improved = changed = true;
+				moves++;
+			}
+			j++;
+
+			if(budget > 0 && tries % CHECK_INTERVAL == 0 && TimeUtils.nanoTime() >= deadline) break;	// Stops once any budget is spent.
+		}
+
+		if(changed) store(route);
+		return converged;
+	}
+
+	/**
+	 * Measures a route from the given start.
+	 * @param startX X co-ordinate the route starts from.
+	 * @param startY Y co-ordinate the route starts from.
+	 * @param route The route, with the first orb to visit last.
+	 * @return Total cost of moving along the route.
+	 */
+	public float getLength(float startX, float startY, Array<OrbData> route) {
+		float length = 0, px = startX, py = startY;
+		for(int k = route.size - 1; k >= 0; k--) {
+			int id = route.get(k).id;
+			length += cost(px, py, snapshot.x[id], snapshot.y[id]);
+			px = snapshot.x[id];
+			py = snapshot.y[id];
+		}
+		return length;
+	}
+
+	/**
+	 * @param budget Time in seconds refinement may take each frame, or 0 to refine every route until it can't be shortened.
+	 */
+	public void setBudget(float budget) {
+		this.budget = (long) (Math.max(0, budget) * 1000000000L);
+	}
+
+	/**
+	 * @return Whether or not the route being refined can no longer be shortened.
+	 */
+	public boolean isConverged() {
+		return converged;
+	}
+
+	/**
+	 * @return Number of 2-opt moves taken since the planner was created.
+	 */
+	public long getMoves() {
+		return moves;
+	}
+
+	/**
+	 * @return Cost of the chain moving between two points, which is their distance less the reach of the chain.
+	 */
+	private float cost(float ax, float ay, float bx, float by) {
+		float dx = bx - ax, dy = by - ay;
+		return Math.max(0, (float) Math.sqrt(dx * dx + dy * dy) - reach);
+	}
+
+	/**
+	 * Copies the route into visiting order along with the positions of its orbs, and starts refinement from the beginning.
+	 */
+	private void load(Array<OrbData> route) {
+		int n = route.size;
+		if(x.length < n) {
+			x = new float[Math.max(n, x.length * 2)];
+			y = new float[x.length];
+		}
+		order.clear();
+		for(int k = 0; k < n; k++) {
+			OrbData o = route.get(n - 1 - k);	// The route is held last to first.
+			order.add(o);
+			x[k] = snapshot.x[o.id];
+			y[k] = snapshot.y[o.id];
+		}
+		i = 0;
+		j = 1;
+		improved = false;
+		converged = n < 2;
+	}
+
+	/**
+	 * Writes the visiting order back into the route, last to first.
+	 */
+	private void store(Array<OrbData> route) {
+		route.clear();
+		for(int k = order.size - 1; k >= 0; k--) route.add(order.get(k));
+	}
+
+	/**
+	 * @return Whether or not the route holds the same orbs in the same order as the one being refined.
+	 */
+	private boolean matches(Array<OrbData> route) {
+		int n = route.size;
+		if(n != order.size) return false;
+		for(int k = 0; k < n; k++) if(route.get(n - 1 - k) != order.get(k)) return false;
+		return true;
+	}
+
+	/**
+	 * Reverses the stretch of the route between the given places, inclusive.
+	 */
+	private void reverse(int from, int to) {
+		while(from < to) swap(from++, to--);
+	}
+
+	/**
+	 * Swaps two places in the route.
+	 */
+	private void swap(int a, int b) {
+		if(a == b) return;
+		order.swap(a, b);
+		float t = x[a];
+		x[a] = x[b];
+		x[b] = t;
+		t = y[a];
+		y[a] = y[b];
+		y[b] = t;
+	}
+}
@@ -0,0 +1,170 @@
+package psyknz.libgdx.orbgame.play;
+
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Chooses how many iterations the box2d solver runs each step so that stepping the world fits within a time budget. Step times are
+ * averaged and checked every few steps: if the average overruns the budget the iterations are lowered, velocity iterations first,
+ * and if there is plenty of headroom they are raised again in the reverse order, so both return to the iterations the budget started
+ * at before either goes above them. Iterations always stay within the bounds set.
+ */
+public class SolverBudget {
+
+	public static final int ADJUST_INTERVAL = 30;	// Number of steps between adjustments to the iterations.
+	public static final float SMOOTHING = 0.1f;		// Weight given to the newest step time in the running average.
+	public static final float HEADROOM = 0.5f;		// Fraction of the budget the average must be under before iterations are raised.
+
+	private long budget;						// Time in nanoseconds each step should take at most.
+	private int minVelocity, maxVelocity;		// Bounds on the velocity iterations.
+	private int minPosition, maxPosition;		// Bounds on the position iterations.
+	private int startVelocity, startPosition;	// Iterations the budget started at, which are restored before going above them.
+	private int velocityIterations;				// Velocity iterations currently chosen.
+	private int positionIterations;				// Position iterations currently chosen.
+
+	private long start;			// Time in nanoseconds the step currently being measured started.
+	private long lastTime;		// Time in nanoseconds the most recent step took.
+	private float averageTime;	// Running average of the time in nanoseconds steps take.
+	private int steps;			// Number of steps measured since the iterations were last adjusted.
+	private int lowered;		// Number of times the iterations have been lowered.
+	private int raised;			// Number of times the iterations have been raised.
+	private boolean fixed;		// Whether or not the iterations are held at those the budget started at.
+
+	/**
+	 * Creates a new budget which starts at the given iterations and never goes outside the given bounds.
+	 * @param budget Time in seconds each step should take at most.
+	 * @param velocityIterations Velocity iterations to start at.
+	 * @param minVelocity Fewest velocity iterations allowed.
+	 * @param maxVelocity Most velocity iterations allowed.
+	 * @param positionIterations Position iterations to start at.
+	 * @param minPosition Fewest position iterations allowed.
+	 * @param maxPosition Most position iterations allowed.
+	 */
+	public SolverBudget(float budget, int velocityIterations, int minVelocity, int maxVelocity,
+			int positionIterations, int minPosition, int maxPosition) {
+		setBudget(budget);
+		this.minVelocity = minVelocity;
+		this.maxVelocity = maxVelocity;
+		this.minPosition = minPosition;
+		this.maxPosition = maxPosition;
+		this.velocityIterations = startVelocity = velocityIterations;
+		this.positionIterations = startPosition = positionIterations;
+	}
+
+	/**
+	 * Marks the start of a step being measured.
+	 */
+	public void begin() {
+		start = TimeUtils.nanoTime();
+	}
+
+	/**
+	 * Marks the end of a step being measured, adjusting the iterations if enough steps have been measured.
+	 */
+	public void end() {
+		lastTime = TimeUtils.nanoTime() - start;									// Records how long the step took
+		if(averageTime <= 0) averageTime = lastTime;								// and adds it to the running average.
+		else averageTime += (lastTime - averageTime) * SMOOTHING;					//
+
+		if(fixed || ++steps < ADJUST_INTERVAL) return;	// The iterations are only adjusted every few steps,
+		steps = 0;								// giving each change time to show in the average.
+
+		if(averageTime > budget) {											// If steps are taking too long
+			if(velocityIterations > minVelocity) velocityIterations--;		// the solver does less work,
+			else if(positionIterations > minPosition) positionIterations--;	// cutting velocity iterations first.
+			else return;													//
+			lowered++;
+		}
+		else if(averageTime < budget * HEADROOM) {								// If there is time to spare
+			if(positionIterations < startPosition) positionIterations++;		// the solver does more work,
+			else if(velocityIterations < startVelocity) velocityIterations++;	// restoring position iterations first
+			else if(velocityIterations < maxVelocity) velocityIterations++;		// and only going above the starting
+			else if(positionIterations < maxPosition) positionIterations++;		// iterations once both are restored.
+			else return;														//
+			raised++;
+		}
+	}
+
+	/**
+	 * Holds the iterations at those the budget started at, so that the work done each step never depends on how long steps take.
+	 * Steps are still measured. Used where runs need to be repeatable, such as headless simulations.
+	 * @param fixed Whether or not the iterations should be held.
+	 */
+	public void setFixed(boolean fixed) {
+		this.fixed = fixed;
+		if(fixed) {
+			velocityIterations = startVelocity;
+			positionIterations = startPosition;
+			steps = 0;
+		}
+	}
+
+	/**
+	 * @return Whether or not the iterations are held at those the budget started at.
+	 */
+	public boolean isFixed() {
+		return fixed;
+	}
+
+	/**
+	 * @param budget Time in seconds each step should take at most.
+	 */
+	public void setBudget(float budget) {
+		this.budget = (long) (budget * 1000000000L);
+	}
+
+	/**
+	 * @return Time in seconds each step should take at most.
+	 */
+	public float getBudget() {
+		return budget / 1000000000f;
+	}
+
+	/**
+	 * @return Velocity iterations the next step should use.
+	 */
+	public int getVelocityIterations() {
+		return velocityIterations;
+	}
+
+	/**
+	 * @return Position iterations the next step should use.
+	 */
+	public int getPositionIterations() {
+		return positionIterations;
+	}
+
+	/**
+	 * @return Time in seconds the most recent step took.
+	 */
+	public float getLastTime() {
+		return lastTime / 1000000000f;
+	}
+
+	/**
+	 * @return Time in nanoseconds the most recent step took.
+	 */
+	public long getLastNanos() {
+		return lastTime;
+	}
+
+	/**
+	 * @return Running average of the time in seconds steps take.
+	 */
+	public float getAverageTime() {
+		return averageTime / 1000000000f;
+	}
+
+	/**
+	 * @return Number of times the iterations have been lowered.
+	 */
+	public int getLowered() {
+		return lowered;
+	}
+
+	/**
+	 * @return Number of times the iterations have been raised.
+	 */
+	public int getRaised() {
+		return raised;
+	}
+}
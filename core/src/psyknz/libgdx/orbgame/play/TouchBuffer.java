@@ -0,0 +1,191 @@
+package psyknz.libgdx.orbgame.play;
+
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Buffers raw pointer samples between frames so that however often the input device reports movement, the rest of the game only sees
+ * a handful of points per frame. Samples are held in plain arrays with the time they were recorded. Once per frame they are coalesced:
+ * each sample is kept only where a straight line from the last kept sample can no longer pass within a tolerance of every sample
+ * dropped since, so runs of nearly collinear samples collapse to their ends while curves keep enough samples to follow their shape.
+ * The newest sample is always kept so that the path ends wherever the pointer is.
+ */
+public class TouchBuffer {
+
+	private float[] x, y;	// Co-ordinates of each sample recorded this frame.
+	private long[] time;	// Time in nanoseconds each sample was recorded.
+	private int size;		// Number of samples recorded this frame, or kept once coalesced.
+
+	private boolean anchored;	// Whether or not a sample has been kept since the buffer was reset.
+	private float ax, ay;		// Co-ordinates of the last sample kept, which the path being coalesced continues from.
+
+	private long recorded;		// Number of samples recorded since the buffer was created.
+	private long kept;			// Number of samples kept once coalesced since the buffer was created.
+
+	/**
+	 * Creates a new empty buffer.
+	 */
+	public TouchBuffer() {
+		x = new float[16];	// Makes room for the first samples.
+		y = new float[16];	//
+		time = new long[16];	//
+	}
+
+	/**
+	 * Records a sample at the current time.
+	 * @param x X co-ordinate of the sample.
+	 * @param y Y co-ordinate of the sample.
+	 */
+	public void record(float x, float y) {
+		record(x, y, TimeUtils.nanoTime());
+	}
+
+	/**
+	 * Records a sample.
+	 * @param x X co-ordinate of the sample.
+	 * @param y Y co-ordinate of the sample.
+	 * @param time Time in nanoseconds the sample was taken.
+	 */
+	public void record(float x, float y, long time) {
+		if(size == this.x.length) {									// The arrays double in size when full.
+			int length = size * 2;									//
+			float[] newX = new float[length], newY = new float[length];
+			long[] newTime = new long[length];						//
+			System.arraycopy(this.x, 0, newX, 0, size);				//
+			System.arraycopy(this.y, 0, newY, 0, size);				//
+			System.arraycopy(this.time, 0, newTime, 0, size);		//
+			this.x = newX;											//
+			this.y = newY;											//
+			this.time = newTime;									//
+		}
+		this.x[size] = x;
+		this.y[size] = y;
+		this.time[size] = time;
+		size++;
+		recorded++;
+	}
+
+	/**
+	 * Coalesces the samples recorded this frame, leaving only the kept samples in the buffer in the order they were recorded. Samples
+	 * are dropped for as long as the straight line from the last kept sample to the current one passes within the tolerance of every
+	 * sample dropped since. Once it doesn't, the sample before the current one is kept and the path continues from it. The newest
+	 * sample is kept unless it is closer than the tolerance to the last kept sample.
+	 * @param tolerance Distance from a straight path a sample must be to be kept.
+	 * @return Number of samples kept.
+	 */
+	public int coalesce(float tolerance) {
+		if(size == 0) return 0;
+		float tol2 = tolerance * tolerance;
+		int n = size;
+		size = 0;
+
+		int start = 0;							// First sample dropped since the last sample was kept.
+		if(!anchored) keep(start++);			// The first sample of a new path is always kept.
+		for(int i = start + 1; i < n; i++) {
+			if(deviates(start, i, tol2)) {		// Once a dropped sample strays too far from the line to this one
+				keep(i - 1);					// the sample before this one is kept
+				start = i;						// and samples are dropped from this one onwards.
+			}
+		}
+		if(start < n) {									// The newest sample is kept unless it
+			float dx = x[n - 1] - ax, dy = y[n - 1] - ay;	// barely moves from the last kept sample.
+			if(dx * dx + dy * dy > tol2) keep(n - 1);		//
+		}
+		kept += size;
+		return size;
+	}
+
+	/**
+	 * Keeps a sample, moving it to the end of the kept samples and continuing the path from it. Kept samples are never moved later in
+	 * the buffer, so samples which haven't been looked at yet are never overwritten.
+	 * @param i Index of the sample.
+	 */
+	private void keep(int i) {
+		float px = x[i], py = y[i];
+		x[size] = px;
+		y[size] = py;
+		time[size] = time[i];
+		size++;
+		ax = px;
+		ay = py;
+		anchored = true;
+	}
+
+	/**
+	 * @param from Index of the first sample dropped since the last kept sample.
+	 * @param to Index of the sample the line from the last kept sample runs to.
+	 * @param tol2 Square of the tolerance.
+	 * @return Whether or not any of the samples from the first dropped sample up to, but not including, the end of the line are
+	 * further than the tolerance from the line.
+	 */
+	private boolean deviates(int from, int to, float tol2) {
+		float lx = x[to] - ax, ly = y[to] - ay;
+		float len2 = lx * lx + ly * ly;
+		for(int k = from; k < to; k++) {
+			float dx = x[k] - ax, dy = y[k] - ay;
+			float t = len2 > 0 ? Math.max(0, Math.min(1, (dx * lx + dy * ly) / len2)) : 0;	// Distance is measured to the nearest
+			float ex = dx - lx * t, ey = dy - ly * t;											// point on the line.
+			if(ex * ex + ey * ey > tol2) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Forgets every sample in the buffer, keeping where the path continues from.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Forgets every sample in the buffer and where the path continues from, so that the next sample recorded starts a new path.
+	 */
+	public void reset() {
+		size = 0;
+		anchored = false;
+	}
+
+	/**
+	 * @return Number of samples in the buffer.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * @param i Index of the sample.
+	 * @return X co-ordinate of the sample.
+	 */
+	public float getX(int i) {
+		return x[i];
+	}
+
+	/**
+	 * @param i Index of the sample.
+	 * @return Y co-ordinate of the sample.
+	 */
+	public float getY(int i) {
+		return y[i];
+	}
+
+	/**
+	 * @param i Index of the sample.
+	 * @return Time in nanoseconds the sample was recorded.
+	 */
+	public long getTime(int i) {
+		return time[i];
+	}
+
+	/**
+	 * @return Number of samples recorded since the buffer was created.
+	 */
+	public long getRecorded() {
+		return recorded;
+	}
+
+	/**
+	 * @return Number of samples kept once coalesced since the buffer was created.
+	 */
+	public long getKept() {
+		return kept;
+	}
+}
@@ -2,6 +2,8 @@ package psyknz.libgdx.orbgame.screens;
 
 import psyknz.libgdx.architecture.GameCore;
 
+import psyknz.libgdx.orbgame.debug.FrameProfiler;
+import psyknz.libgdx.orbgame.debug.RollingHistogram;
 import psyknz.libgdx.orbgame.layers.GameLayer;
 
 import com.badlogic.gdx.Gdx;
@@ -11,6 +13,7 @@ import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
 
 public class GameScreen2D implements Screen {
 	
@@ -25,6 +28,14 @@ public class GameScreen2D implements Screen {
 	
 	private GameScreen2D nextScreen;	// Reference to the next screen to be displayed.
 	
+	private int renderCalls;	// Number of draw calls the batch made drawing the last frame.
+	private int maxRenderCalls;	// Most draw calls the batch has made drawing a single frame.
+	
+	protected FrameProfiler profiler;		// Profiler holding histograms of how long each part of a frame takes.
+	private RollingHistogram frameTimes;	// Time each frame takes to update and draw.
+	private RollingHistogram flushTimes;	// Time the batch takes to flush once every layer has been drawn.
+	private RollingHistogram renderCallCounts;	// Number of draw calls the batch makes each frame.
+	
 	/**
 	 * Creates a new game screen managed by the given game.
 	 * @param game The game object managing this screen.
@@ -36,6 +47,11 @@ public class GameScreen2D implements Screen {
 		camera = new OrthographicCamera(							// Instantiates a blank Camera for this screen to use
 				Gdx.graphics.getWidth(), Gdx.graphics.getHeight());	// and sets its dimensions to the current size of the screen.
 		input = new InputMultiplexer();								// Instantiates the input processor for this screen.
+		
+		profiler = new FrameProfiler();						// Creates the profiler for this screen
+		frameTimes = profiler.addTimer("Frame");			// with histograms for the frame as a whole.
+		flushTimes = profiler.addTimer("Batch flush");		//
+		renderCallCounts = profiler.addCounter("Render calls");	//
 	}
 	
 	@Override
@@ -56,8 +72,15 @@ public class GameScreen2D implements Screen {
 	 * @param delta Time in ms since render was last called.
 	 */
 	public void render(float delta) {
-		for(int i = layers.size - 1; i >= 0; i--) {	// Starting with the top most layer
-			if(layers.get(i).update(delta)) break;	// the logic for each layer is updated, if one returns true updating stops.
+		long frameStart = TimeUtils.nanoTime();		// Every part of the frame is timed.
+		long start;									//
+		
+		boolean stop = false;
+		for(int i = layers.size - 1; i >= 0 && !stop; i--) {	// Starting with the top most layer
+			GameLayer l = layers.get(i);						// the logic for each layer is updated, if one returns true updating stops.
+			start = TimeUtils.nanoTime();
+			stop = l.update(delta);
+			profiler.getUpdateTimer(l).record(TimeUtils.nanoTime() - start);
 		}
 		
 		Gdx.gl.glClearColor(0, 0, 0, 1);			// Sets the color to use when clearing the screen to opaque black,
@@ -65,8 +88,22 @@ public class GameScreen2D implements Screen {
 		
 		batch.setProjectionMatrix(camera.combined);	// before setting the projection matrix for the batch.
 		batch.begin();								// Batching of draw commands begins.
-		for(GameLayer l : layers) l.draw(batch);	// Every GameLayer is drawn to the screen.
+		for(int i = 0; i < layers.size; i++) {		// Every GameLayer is drawn to the screen.
+			GameLayer l = layers.get(i);
+			start = TimeUtils.nanoTime();
+			l.draw(batch);
+			profiler.getDrawTimer(l).record(TimeUtils.nanoTime() - start);
+		}
+		start = TimeUtils.nanoTime();
 		batch.end();								// Batching ends and all draw commands are rendered.
+		flushTimes.record(TimeUtils.nanoTime() - start);
+		
+		if(batch.renderCalls != renderCalls)										// Whenever the number of draw calls
+			Gdx.app.debug("GameScreen2D", batch.renderCalls + " draw calls per frame");	// needed to draw a frame changes it is logged.
+		renderCalls = batch.renderCalls;											// Records how many draw calls the frame took.
+		if(renderCalls > maxRenderCalls) maxRenderCalls = renderCalls;				//
+		renderCallCounts.record(renderCalls);										//
+		frameTimes.record(TimeUtils.nanoTime() - frameStart);
 		
 		if(nextScreen != null) {		// If there is currently a screen queued up to shift to
 			game.setScreen(nextScreen);	// then that screen is loaded
@@ -99,6 +136,27 @@ public class GameScreen2D implements Screen {
 		nextScreen = screen;	// Records the next screen which needs to be shown.
 	}
 	
+	/**
+	 * @return Number of draw calls the batch made drawing the last frame. Should be 1 while everything drawn shares a texture.
+	 */
+	public int getRenderCalls() {
+		return renderCalls;
+	}
+	
+	/**
+	 * @return Most draw calls the batch has made drawing a single frame on this screen.
+	 */
+	public int getMaxRenderCalls() {
+		return maxRenderCalls;
+	}
+	
+	/**
+	 * @return Profiler holding histograms of how long each part of a frame takes on this screen.
+	 */
+	public FrameProfiler getProfiler() {
+		return profiler;
+	}
+	
 	/**
 	 * @return Game managing this screen.
 	 */
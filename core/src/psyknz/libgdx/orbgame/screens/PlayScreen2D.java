@@ -8,15 +8,20 @@ import psyknz.libgdx.orbgame.misc.CameraController;
 import psyknz.libgdx.orbgame.misc.GamePalette;
 import psyknz.libgdx.orbgame.debug.*;
 
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+
 public class PlayScreen2D extends GameScreen2D {
 	
 	public static final int PLAY_AREA_SIZE = 48;		// The size of the play area (which is square) in in-game units.
 	public static final float MAX_DELTA_TIME = 1.0f;	// Maximum length of time which may pass between updates in seconds.
+	public static final String TIMINGS_FILE = "frame_timings.txt";	// Local file frame timings are written to when debugging.
 	
 	private CameraController camControl;	// Camera controller to improve resizing and provide zoom control.
 	
 	private OrbDebugger debug;				// Debugger used to deal with issues on the Orb Layer.
 	private PaletteDebugger paletteDebug;	// Debugger used to deal with issues in the palette.
+	private ProfilerOverlay profilerOverlay;	// Overlay showing how long each part of a frame takes.
 	private boolean debugEnabled = false;	// Whether or not debug should be enabled.
 	
 	/**
@@ -30,13 +35,18 @@ public class PlayScreen2D extends GameScreen2D {
 		
 		GamePalette palette = new GamePalette(5);
 		OrbLayer orbLayer = new OrbLayer(game.assets, palette);
+		orbLayer.setViewArea(camControl.getViewArea());	// Orbs outside of the cameras view aren't drawn.
 		AIPlayer ai = new AIPlayer(game.assets, orbLayer);
 		orbLayer.enableAI(ai);
 		layers.add(orbLayer);
 		layers.add(ai);
+		profiler.add(orbLayer.stepTimes);		// Box2D steps are profiled alongside the layers,
+		profiler.add(orbLayer.drawnCounts);		// as are the number of orbs drawn
+		profiler.add(orbLayer.culledCounts);	// and culled each frame.
 		
 		debug = new OrbDebugger(orbLayer);
 		paletteDebug = new PaletteDebugger(palette, game.assets);
+		profilerOverlay = new ProfilerOverlay(profiler, game.assets.get("kenpixel_blocks.ttf", BitmapFont.class));
 		//debugEnabled = true;
 		input.addProcessor(paletteDebug);
 	}
@@ -48,6 +58,7 @@ public class PlayScreen2D extends GameScreen2D {
 		
 		debug.setCamera(camera);
 		paletteDebug.resize(width, height);
+		profilerOverlay.resize(width, height);
 	}
 	
 	@Override
@@ -58,6 +69,7 @@ public class PlayScreen2D extends GameScreen2D {
 		if(debugEnabled) {
 			debug.draw();
 			paletteDebug.draw();
+			profilerOverlay.draw();
 		} 
 	}
 	
@@ -70,8 +82,25 @@ public class PlayScreen2D extends GameScreen2D {
 	@Override
 	public void dispose() {
 		super.dispose();
+		if(debugEnabled) profiler.dump(Gdx.files.local(TIMINGS_FILE));	// Frame timings are kept when debugging.
 		debug.dispose();
 		paletteDebug.dispose();
+		profilerOverlay.dispose();
+	}
+	
+	/**
+	 * Turns the debuggers and the frame timing overlay on or off.
+	 * @param debugEnabled Whether or not debugging should be enabled.
+	 */
+	public void setDebugEnabled(boolean debugEnabled) {
+		this.debugEnabled = debugEnabled;
+	}
+	
+	/**
+	 * @return Whether or not debugging is enabled.
+	 */
+	public boolean isDebugEnabled() {
+		return debugEnabled;
 	}
 	
 	public void showMainMenu() {
@@ -0,0 +1,80 @@
+package psyknz.libgdx.orbgame.misc;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TimerWheelTest {
+
+	private static final float BEYOND_WHEELS = (1 << 24) * TimerWheel.RESOLUTION * 2.4f;	// Delay past the range of every wheel.
+
+	/**
+	 * Counts the times it fires and records the wheel time it last fired at.
+	 */
+	private static class Counter implements TimerWheel.Listener {
+		private final TimerWheel wheel;
+		int fired;
+		double firedAt;
+
+		Counter(TimerWheel wheel) {
+			this.wheel = wheel;
+		}
+
+		@Override
+		public void onTimer(long handle, Object data) {
+			fired++;
+			firedAt = wheel.getTime();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void delayBeyondTheWheelsFiresOnTime() {
+		TimerWheel wheel = new TimerWheel();
+		Counter counter = new Counter(wheel);
+		long handle = wheel.schedule(counter, null, BEYOND_WHEELS);
+
+		while(wheel.getTime() + 1000 < BEYOND_WHEELS) {
+			wheel.update(1000);
+			assertEquals(0, counter.fired);
+			assertTrue(wheel.isScheduled(handle));
+		}
+		wheel.update(1000);
+
+		assertEquals(1, counter.fired);
+		assertEquals(BEYOND_WHEELS, counter.firedAt, 1000);
+		assertFalse(wheel.isScheduled(handle));
+		assertEquals(0, wheel.getSize());
+	}
+
+	@Test(timeout = 10000)
+	public void delayBeyondTheWheelsCanBeCancelled() {
+		TimerWheel wheel = new TimerWheel();
+		Counter counter = new Counter(wheel);
+		long handle = wheel.schedule(counter, null, BEYOND_WHEELS);
+		wheel.update(20000);
+
+		assertTrue(wheel.cancel(handle));
+		wheel.update(BEYOND_WHEELS);
+
+		assertEquals(0, counter.fired);
+		assertEquals(0, wheel.getSize());
+	}
+
+	@Test(timeout = 10000)
+	public void timersFireInDeadlineOrder() {
+		final TimerWheel wheel = new TimerWheel();
+		final StringBuilder order = new StringBuilder();
+		TimerWheel.Listener listener = new TimerWheel.Listener() {
+			@Override
+			public void onTimer(long handle, Object data) {
+				order.append(data);
+			}
+		};
+		wheel.schedule(listener, "c", 300);
+		wheel.schedule(listener, "a", 0.01f);
+		wheel.schedule(listener, "b", 5);
+		wheel.update(400);
+
+		assertEquals("abc", order.toString());
+	}
+}
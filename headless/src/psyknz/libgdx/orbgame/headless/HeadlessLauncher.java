@@ -0,0 +1,17 @@
+package psyknz.libgdx.orbgame.headless;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+
+/**
+ * Runs AI self-play games without a window. Usage: HeadlessLauncher [games] [seed] [freeze] [route] [budgets]
+ */
+public class HeadlessLauncher {
+	public static void main (String[] arg) {
+		int games = arg.length > 0 ? Integer.parseInt(arg[0]) : SelfPlaySimulation.DEFAULT_GAMES;
+		long seed = arg.length > 1 ? Long.parseLong(arg[1]) : System.currentTimeMillis();
+		boolean freeze = arg.length > 2 && Boolean.parseBoolean(arg[2]);
+		boolean route = arg.length <= 3 || Boolean.parseBoolean(arg[3]);
+		boolean budgets = arg.length > 4 && Boolean.parseBoolean(arg[4]);
+		new HeadlessApplication(new SelfPlaySimulation(games, seed, freeze, route, budgets));
+	}
+}
@@ -0,0 +1,132 @@
+package psyknz.libgdx.orbgame.headless;
+
+import psyknz.libgdx.orbgame.layers.AIPlayer;
+import psyknz.libgdx.orbgame.layers.OrbLayer;
+import psyknz.libgdx.orbgame.misc.GamePalette;
+import psyknz.libgdx.orbgame.screens.PlayScreen2D;
+import psyknz.libgdx.orbgame.tweenaccessors.SpriteTween;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+
+import aurelienribon.tweenengine.Tween;
+
+public class SelfPlaySimulation extends ApplicationAdapter {
+
+	public static final int DEFAULT_GAMES = 100;		// Number of games played if none are specified.
+	public static final int NUM_COLORS = 5;				// Number of colors in the palette, matching the play screen.
+	public static final float TIME_STEP = 1 / 60f;		// Simulated time in seconds which passes each update.
+	public static final float MAX_GAME_TIME = 60 * 60;	// Simulated time in seconds after which a game is forcibly ended.
+
+	private int numGames;	// Number of games the simulation should play.
+	private long seed;		// Seed used for all random numbers generated during the simulation.
+	private boolean freeze;	// Whether or not settled orbs are frozen into the magnet.
+	private boolean route;	// Whether or not the AI orders its targets into a short route.
+	private boolean budgets;	// Whether or not the solver and route planner choose their work from how long it takes.
+
+	private long totalScore;	// Sum of the scores of every finished game.
+	private float totalTime;	// Sum of the length in seconds of every finished game.
+	private long totalSettled;	// Sum of the number of orbs settled onto the magnet at the end of every finished game.
+	private long totalUpdates;	// Number of fixed time step updates run across all games.
+	
+	private OrbLayer layer;	// Reference to the layer the games are played on.
+
+	/**
+	 * Creates a new simulation which plays the given number of AI games as fast as possible.
+	 * @param numGames Number of games to play before reporting the results.
+	 * @param seed Seed for the random number generator so that runs can be repeated.
+	 * @param freeze Whether or not settled orbs should be frozen into the magnet.
+	 * @param route Whether or not the AI should order its targets into a short route.
+	 * @param budgets Whether or not the solver and route planner should choose their work from how long it takes, as they do in the
+	 * game. Without budgets a seed always reproduces the same run, otherwise results depend on how fast the machine is.
+	 */
+	public SelfPlaySimulation(int numGames, long seed, boolean freeze, boolean route, boolean budgets) {
+		this.numGames = numGames;
+		this.seed = seed;
+		this.freeze = freeze;
+		this.route = route;
+		this.budgets = budgets;
+	}
+
+	@Override
+	public void create() {
+		Tween.registerAccessor(Sprite.class, new SpriteTween());	// Registers the accessor used to 'pop' starting orbs into play.
+
+		long start = System.nanoTime();	// Records when the simulation started running.
+		run();							// Plays every game
+		report(System.nanoTime() - start);	// and reports how they went.
+
+		Gdx.app.exit();	// The simulation closes once finished.
+	}
+
+	/**
+	 * Plays games between the AI and an orb layer on a fixed time step until the requested number of games have finished.
+	 */
+	private void run() {
+		OrthographicCamera camera = new OrthographicCamera(					// The camera is sized to exactly fit the play area,
+				PlayScreen2D.PLAY_AREA_SIZE, PlayScreen2D.PLAY_AREA_SIZE);	// as though the game were shown on a square screen.
+		camera.update();													//
+
+		layer = new OrbLayer(null, new GamePalette(NUM_COLORS));	// Creates a headless layer and AI to play on it.
+		AIPlayer ai = new AIPlayer(null, layer);							//
+		layer.enableAI(ai);													//
+		layer.setSeed(seed);												// Seeds the game, which reproduces a run unless budgets are used.
+		ai.setRouting(route);												//
+		layer.setFreezing(freeze);											//
+		layer.solver.setFixed(!budgets);									// Without budgets the solver keeps its
+		if(!budgets) ai.getPlanner().setBudget(0);							// iterations and routes are fully refined.
+		layer.resize(camera);												//
+		ai.resize(camera);													//
+
+		int recorded = 0;								// Number of finished games whose results have been recorded.
+		while(recorded < numGames) {					// Games are played until enough have finished.
+			ai.update(TIME_STEP);						// Layers are updated top down, as they are by the play screen.
+			layer.update(TIME_STEP);					//
+			totalUpdates++;								//
+
+			if(layer.isPlaying() && layer.getGameTime() > MAX_GAME_TIME)	// Games which go on too long are ended
+				layer.endGame();											// so that the simulation can't stall.
+
+			if(layer.getGamesPlayed() > recorded) {	// When a game finishes
+				totalScore += layer.getScore();		// its score
+				totalTime += layer.getGameTime();	// length and settled orbs are recorded.
+				totalSettled += layer.getSettledOrbs();	//
+				recorded++;							//
+			}
+		}
+
+		layer.dispose();	// The box2d world is disposed of once the simulation is over.
+	}
+
+	/**
+	 * Prints the results of the simulation to the console.
+	 * @param nanos Real time in nanoseconds it took to run the simulation.
+	 */
+	private void report(long nanos) {
+		double seconds = nanos / 1000000000.0;
+		System.out.println("SelfPlaySimulation: seed " + seed + (freeze ? ", freezing settled orbs" : "")
+				+ (route ? ", routing AI targets" : ", AI targets unrouted")
+				+ (budgets ? ", timed budgets" : ", fixed work"));
+		System.out.println("SelfPlaySimulation: " + numGames + " games in " + String.format("%.2f", seconds) + "s ("
+				+ String.format("%.2f", numGames / seconds) + " games/s, "
+				+ String.format("%.0f", totalUpdates / seconds) + " updates/s)");
+		System.out.println("SelfPlaySimulation: average score " + String.format("%.1f", (double) totalScore / numGames));
+		System.out.println("SelfPlaySimulation: average game length " + String.format("%.1f", totalTime / numGames) + "s");
+		System.out.println("SelfPlaySimulation: " + String.format("%.1f", totalScore / totalTime) + " points per second of play");
+		System.out.println("SelfPlaySimulation: average orbs settled at game over "
+				+ String.format("%.1f", (double) totalSettled / numGames));
+		System.out.println("SelfPlaySimulation: orb pool " + layer.pool.getCreated() + " created, " + layer.pool.getReused()
+				+ " reused (" + String.format("%.1f", layer.pool.getHitRate() * 100) + "% hit rate)");
+		System.out.println("SelfPlaySimulation: " + layer.joints.getRejected() + " duplicate joints rejected");
+		System.out.println("SelfPlaySimulation: solver " + layer.solver.getVelocityIterations() + " velocity and "
+				+ layer.solver.getPositionIterations() + " position iterations, average step "
+				+ String.format("%.3f", layer.solver.getAverageTime() * 1000) + "ms (lowered " + layer.solver.getLowered()
+				+ " times, raised " + layer.solver.getRaised() + " times)");
+		System.out.println(layer.stepTimes.report(new StringBuilder("SelfPlaySimulation: last ")
+				.append(layer.stepTimes.getSize()).append(" steps, ")));
+		if(freeze) System.out.println("SelfPlaySimulation: " + layer.freezer.getFrozen() + " orbs frozen, "
+				+ layer.freezer.getThawed() + " thawed");
+	}
+}